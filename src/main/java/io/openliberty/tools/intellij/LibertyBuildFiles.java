@@ -0,0 +1,325 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.IndexNotReadyException;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.roots.ModuleRootListener;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.*;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.PathUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.messages.MessageBusConnection;
+import io.openliberty.tools.intellij.util.BuildFile;
+import io.openliberty.tools.intellij.util.Constants;
+import io.openliberty.tools.intellij.util.LibertyGradleUtil;
+import io.openliberty.tools.intellij.util.LibertyMavenUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Model of the Maven and Gradle build files of a project, kept up to date by VFS events.
+ *
+ * Each pom.xml and build.gradle is classified once, then again only when it, or the settings.gradle
+ * next to it, changes. The project is scanned for build files the first time the model is used and
+ * again only when build files or directories are created, deleted, moved or renamed, or when the
+ * project roots change. Listeners are notified on the EDT when the Liberty Dashboard must be updated.
+ */
+public class LibertyBuildFiles implements Disposable {
+    private static final Logger LOGGER = Logger.getInstance(LibertyBuildFiles.class);
+
+    private static final String POM_XML = "pom.xml";
+    private static final String BUILD_GRADLE = "build.gradle";
+    private static final String SETTINGS_GRADLE = "settings.gradle";
+    private static final String SERVER_XML = "/src/main/liberty/config/server.xml";
+
+    private static final long REFRESH_DELAY_MILLIS = 300;
+
+    private final Project project;
+
+    private final Map<VirtualFile, Entry> entries = new ConcurrentHashMap<>();
+    private final List<Runnable> listeners = ContainerUtil.createLockFreeCopyOnWriteList();
+    private final Object refreshLock = new Object();
+
+    private volatile boolean rescanNeeded = true;
+    private final AtomicBoolean changed = new AtomicBoolean();
+    private ScheduledFuture<?> scheduledRefresh;
+
+    public LibertyBuildFiles(Project project) {
+        this.project = project;
+        MessageBusConnection connection = project.getMessageBus().connect(this);
+        connection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                buildFilesChanged(events);
+            }
+        });
+        connection.subscribe(ModuleRootListener.TOPIC, new ModuleRootListener() {
+            @Override
+            public void rootsChanged(@NotNull ModuleRootEvent event) {
+                rescanNeeded = true;
+                scheduleRefresh();
+            }
+        });
+    }
+
+    public static LibertyBuildFiles getInstance(Project project) {
+        return project.getService(LibertyBuildFiles.class);
+    }
+
+    /**
+     * Returns the classified build files of the given type, reclassifying only the build files which
+     * changed since the last call.
+     *
+     * @param buildFileType Constants.LIBERTY_MAVEN_PROJECT or Constants.LIBERTY_GRADLE_PROJECT
+     * @return a new BuildFile for each build file of the given type in the project, ordered by path
+     */
+    public List<BuildFile> getBuildFiles(String buildFileType) {
+        refresh();
+        List<Entry> matching = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (buildFileType.equals(entry.buildFile.getProjectType()) && entry.file.isValid()) {
+                matching.add(entry);
+            }
+        }
+        matching.sort(Comparator.comparing(entry -> entry.file.getPath()));
+        return ReadAction.compute(() -> {
+            List<BuildFile> buildFiles = new ArrayList<>();
+            PsiManager psiManager = PsiManager.getInstance(project);
+            for (Entry entry : matching) {
+                PsiFile psiFile = psiManager.findFile(entry.file);
+                if (psiFile != null) {
+                    BuildFile buildFile = new BuildFile(entry.buildFile.isValidBuildFile(), entry.buildFile.isValidContainerVersion());
+                    buildFile.setProjectName(entry.buildFile.getProjectName());
+                    buildFile.setProjectType(entry.buildFile.getProjectType());
+                    buildFile.setBuildFile(psiFile);
+                    buildFiles.add(buildFile);
+                }
+            }
+            return buildFiles;
+        });
+    }
+
+    /**
+     * Scans the project for build files again on the next refresh, reclassifying those which were
+     * modified since they were last classified.
+     */
+    public void rescan() {
+        rescanNeeded = true;
+    }
+
+    /**
+     * Registers a listener called on the EDT when build files were added, removed or reclassified.
+     *
+     * @param listener the listener
+     * @param parentDisposable disposable which unregisters the listener when disposed
+     */
+    public void addChangeListener(@NotNull Runnable listener, @NotNull Disposable parentDisposable) {
+        listeners.add(listener);
+        Disposer.register(parentDisposable, () -> listeners.remove(listener));
+    }
+
+    /**
+     * Unregisters a listener registered with {@link #addChangeListener(Runnable, Disposable)}.
+     *
+     * @param listener the listener
+     */
+    public void removeChangeListener(@NotNull Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    private void buildFilesChanged(List<? extends VFileEvent> events) {
+        boolean relevant = false;
+        for (VFileEvent event : events) {
+            String path = event.getPath();
+            String name = PathUtil.getFileName(path);
+            if (event instanceof VFileContentChangeEvent) {
+                if (POM_XML.equals(name) || BUILD_GRADLE.equals(name)) {
+                    Entry entry = entries.get(event.getFile());
+                    if (entry != null) {
+                        entry.dirty = true;
+                        relevant = true;
+                    }
+                } else if (SETTINGS_GRADLE.equals(name)) {
+                    relevant |= settingsChanged(path);
+                }
+            } else if (event instanceof VFileCreateEvent || event instanceof VFileDeleteEvent
+                    || event instanceof VFileMoveEvent || event instanceof VFileCopyEvent
+                    || (event instanceof VFilePropertyChangeEvent && ((VFilePropertyChangeEvent) event).isRename())) {
+                VirtualFile file = event.getFile();
+                boolean directory = event instanceof VFileCreateEvent ? ((VFileCreateEvent) event).isDirectory()
+                        : file != null && file.isDirectory();
+                String oldName = event instanceof VFilePropertyChangeEvent ? (String) ((VFilePropertyChangeEvent) event).getOldValue() : name;
+                if (directory || isBuildFileName(name) || isBuildFileName(oldName)) {
+                    rescanNeeded = true;
+                    relevant = true;
+                }
+                if (SETTINGS_GRADLE.equals(name) || SETTINGS_GRADLE.equals(oldName)) {
+                    relevant |= settingsChanged(path);
+                }
+                if (path.endsWith(SERVER_XML)) {
+                    // the build file of the server may now be listed, or no longer be listed, as a Liberty project
+                    changed.set(true);
+                    relevant = true;
+                }
+            }
+        }
+        if (relevant) {
+            scheduleRefresh();
+        }
+    }
+
+    private static boolean isBuildFileName(String name) {
+        return POM_XML.equals(name) || BUILD_GRADLE.equals(name);
+    }
+
+    private boolean settingsChanged(String settingsPath) {
+        // the project name of a Gradle build file comes from the settings.gradle in the same directory
+        String directory = PathUtil.getParentPath(settingsPath);
+        boolean found = false;
+        for (Entry entry : entries.values()) {
+            VirtualFile parent = entry.file.getParent();
+            if (parent != null && parent.getPath().equals(directory)) {
+                entry.dirty = true;
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    private synchronized void scheduleRefresh() {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+        scheduledRefresh = AppExecutorUtil.getAppScheduledExecutorService().schedule(() -> {
+            if (project.isDisposed()) {
+                return;
+            }
+            if (DumbService.isDumb(project)) {
+                DumbService.getInstance(project).runWhenSmart(this::scheduleRefresh);
+                return;
+            }
+            try {
+                refresh();
+            } catch (IndexNotReadyException e) {
+                DumbService.getInstance(project).runWhenSmart(this::scheduleRefresh);
+            }
+        }, REFRESH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh() {
+        synchronized (refreshLock) {
+            if (rescanNeeded) {
+                rescanNeeded = false;
+                scan();
+            }
+            for (Entry entry : entries.values()) {
+                if (entry.dirty) {
+                    entry.dirty = false;
+                    if (entry.classify()) {
+                        changed.set(true);
+                    }
+                }
+            }
+        }
+        // a change flagged by a VFS event meanwhile is either reported now or by the next refresh
+        if (changed.getAndSet(false)) {
+            ApplicationManager.getApplication().invokeLater(() -> listeners.forEach(Runnable::run), project.getDisposed());
+        }
+    }
+
+    private void scan() {
+        Set<VirtualFile> found = new HashSet<>();
+        ReadAction.run(() -> {
+            GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+            found.addAll(FilenameIndex.getVirtualFilesByName(POM_XML, scope));
+            found.addAll(FilenameIndex.getVirtualFilesByName(BUILD_GRADLE, scope));
+        });
+        if (entries.keySet().retainAll(found)) {
+            changed.set(true);
+        }
+        for (VirtualFile file : found) {
+            Entry entry = entries.get(file);
+            if (entry == null) {
+                entry = new Entry(file);
+                entry.classify();
+                entries.put(file, entry);
+                changed.set(true);
+            } else if (entry.modificationStamp != file.getModificationStamp()) {
+                entry.dirty = true;
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        synchronized (this) {
+            if (scheduledRefresh != null) {
+                scheduledRefresh.cancel(false);
+            }
+        }
+        entries.clear();
+        listeners.clear();
+    }
+
+    private static class Entry {
+        private final VirtualFile file;
+        private volatile boolean dirty;
+        private long modificationStamp;
+        private volatile BuildFile buildFile;
+
+        private Entry(VirtualFile file) {
+            this.file = file;
+        }
+
+        /**
+         * Classifies the build file.
+         *
+         * @return true if the classification changed
+         */
+        private boolean classify() {
+            modificationStamp = file.getModificationStamp();
+            BuildFile previous = buildFile;
+            boolean maven = POM_XML.equals(file.getName());
+            try {
+                buildFile = maven ? LibertyMavenUtil.classifyPom(file) : LibertyGradleUtil.classifyBuildGradle(file);
+            } catch (Exception e) {
+                LOGGER.warn(String.format("Could not classify build file %s", file), e);
+                buildFile = new BuildFile(false, false);
+                buildFile.setProjectType(maven ? Constants.LIBERTY_MAVEN_PROJECT : Constants.LIBERTY_GRADLE_PROJECT);
+                VirtualFile parent = file.getParent();
+                buildFile.setProjectName(parent != null ? parent.getName() : file.getName());
+            }
+            return previous == null
+                    || previous.isValidBuildFile() != buildFile.isValidBuildFile()
+                    || previous.isValidContainerVersion() != buildFile.isValidContainerVersion()
+                    || !Objects.equals(previous.getProjectName(), buildFile.getProjectName());
+        }
+    }
+}
@@ -27,6 +27,7 @@ final class LibertyDevToolWindowFactory implements ToolWindowFactory {
         ContentManager contentManager = toolWindow.getContentManager();
         Content content = contentManager.getFactory().createContent(explorer,
                 LocalizedResourceUtil.getMessage("liberty.tool.window.display.name"), false);
+        content.setDisposer(explorer);
         contentManager.addContent(content);
 
     }
@@ -10,6 +10,7 @@
 package io.openliberty.tools.intellij;
 
 import com.intellij.ide.DataManager;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.actionSystem.*;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.fileEditor.FileEditorManager;
@@ -17,11 +18,11 @@ import com.intellij.openapi.fileEditor.OpenFileDescriptor;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.SimpleToolWindowPanel;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.psi.PsiFile;
 import com.intellij.ui.DoubleClickListener;
 import com.intellij.ui.PopupHandler;
 import com.intellij.ui.components.JBTextArea;
 import com.intellij.ui.treeStructure.Tree;
+import com.intellij.util.containers.ContainerUtil;
 import io.openliberty.tools.intellij.actions.LibertyGeneralAction;
 import io.openliberty.tools.intellij.actions.LibertyToolbarActionGroup;
 import io.openliberty.tools.intellij.util.*;
@@ -31,6 +32,8 @@ import org.xml.sax.SAXException;
 import javax.swing.*;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeCellRenderer;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.MutableTreeNode;
 import javax.swing.tree.TreePath;
 import javax.xml.parsers.ParserConfigurationException;
 import java.awt.*;
@@ -38,17 +41,27 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.*;
+import java.util.List;
 
-public class LibertyExplorer extends SimpleToolWindowPanel {
+public class LibertyExplorer extends SimpleToolWindowPanel implements Disposable {
     private final static Logger LOGGER = Logger.getInstance(LibertyExplorer.class);
 
+    private final Project project;
+    private final Runnable buildFilesListener;
+
     public LibertyExplorer(@NotNull Project project) {
         super(true, true);
+        this.project = project;
         // build tree
         Tree tree = buildTree(project, getBackground());
+        setTree(tree);
+        // patch the tree when Liberty build files are added, removed or changed
+        buildFilesListener = () -> buildFilesChanged(project);
+        LibertyBuildFiles.getInstance(project).addChangeListener(buildFilesListener, this);
+    }
 
+    private void setTree(Tree tree) {
         if (tree != null) {
             this.setContent(tree);
         } else {
@@ -63,6 +76,23 @@ public class LibertyExplorer extends SimpleToolWindowPanel {
         this.setToolbar(actionToolbar.getComponent());
     }
 
+    private void buildFilesChanged(Project project) {
+        if (getContent() instanceof Tree tree && updateTree(project, tree)) {
+            return;
+        }
+        // the first Liberty project was added or the last one was removed
+        setTree(buildTree(project, getBackground()));
+        revalidate();
+        repaint();
+    }
+
+    @Override
+    public void dispose() {
+        if (!project.isDisposed()) {
+            LibertyBuildFiles.getInstance(project).removeChangeListener(buildFilesListener);
+        }
+    }
+
     public static ActionToolbar buildActionToolbar(Tree tree) {
         // create ActionToolBar
         final ActionManager actionManager = ActionManager.getInstance();
@@ -83,117 +113,14 @@ public class LibertyExplorer extends SimpleToolWindowPanel {
      * @return Tree object of all valid Liberty Gradle and Liberty Maven projects
      */
     public static Tree buildTree(Project project, Color backgroundColor) {
-        LibertyModules libertyModules = LibertyModules.getInstance();
-        // clear all stored Liberty modules for current project
-        libertyModules.removeForProject(project);
-        DefaultMutableTreeNode top = new DefaultMutableTreeNode("Root node");
-
-        ArrayList<BuildFile> mavenBuildFiles;
-        ArrayList<BuildFile> gradleBuildFiles;
-        HashMap<String, ArrayList<Object>> map = new HashMap<>();
-        try {
-            mavenBuildFiles = LibertyProjectUtil.getMavenBuildFiles(project);
-            gradleBuildFiles = LibertyProjectUtil.getGradleBuildFiles(project);
-        } catch (IOException | SAXException | ParserConfigurationException e) {
-            LOGGER.warn("Could not find Liberty Maven or Gradle projects in workspace",
-                    e);
-            return null;
-        }
-
-        if (mavenBuildFiles.isEmpty() && gradleBuildFiles.isEmpty()) {
+        List<LibertyModule> modules = getLibertyModules(project);
+        if (modules == null || modules.isEmpty()) {
             return null;
         }
 
-        for (BuildFile buildFile : mavenBuildFiles) {
-            // create a new Liberty project
-            PsiFile psiFile = buildFile.getBuildFile();
-            String projectName = null;
-            VirtualFile virtualFile = psiFile.getVirtualFile();
-            if (virtualFile == null) {
-                LOGGER.error(String.format("Could not resolve current Maven project %s", psiFile));
-                break;
-            }
-            LibertyModuleNode node;
-            try {
-                projectName = LibertyMavenUtil.getProjectNameFromPom(virtualFile);
-            } catch (Exception e) {
-                LOGGER.warn(String.format("Could not resolve project name from build file: %s", virtualFile), e);
-            }
-            if (projectName == null) {
-                if (virtualFile.getParent() != null) {
-                    projectName = virtualFile.getParent().getName();
-                } else {
-                    projectName = project.getName();
-                }
-            }
-
-            boolean validContainerVersion = buildFile.isValidContainerVersion();
-            LibertyModule module = libertyModules.addLibertyModule(new LibertyModule(project, psiFile.getVirtualFile(), projectName, Constants.LIBERTY_MAVEN_PROJECT, validContainerVersion));
-            node = new LibertyModuleNode(module);
-
-            top.add(node);
-            ArrayList<Object> settings = new ArrayList<Object>();
-            settings.add(virtualFile);
-            settings.add(Constants.LIBERTY_MAVEN_PROJECT);
-            map.put(projectName, settings);
-
-            // ordered to align with IntelliJ's right-click menu
-            node.add(new LibertyActionNode(Constants.LIBERTY_DEV_START, module));
-            // check if Liberty Maven Plugin is 3.3-M1+
-            // if version is not specified in pom, assume latest version as downloaded from maven central
-            if (validContainerVersion){
-                node.add(new LibertyActionNode(Constants.LIBERTY_DEV_START_CONTAINER, module));
-            }
-            node.add(new LibertyActionNode(Constants.LIBERTY_DEV_CUSTOM_START, module));
-            node.add(new LibertyActionNode(Constants.LIBERTY_DEV_STOP, module));
-            node.add(new LibertyActionNode(Constants.LIBERTY_DEV_TESTS, module));
-            node.add(new LibertyActionNode(Constants.VIEW_INTEGRATION_TEST_REPORT, module));
-            node.add(new LibertyActionNode(Constants.VIEW_UNIT_TEST_REPORT, module));
-        }
-
-        for (BuildFile buildFile : gradleBuildFiles) {
-            PsiFile psiFile = buildFile.getBuildFile();
-            String projectName = null;
-            VirtualFile virtualFile = psiFile.getVirtualFile();
-            if (virtualFile == null) {
-                LOGGER.error(String.format("Could not resolve current Gradle project %s", buildFile));
-                break;
-            }
-            LibertyModuleNode node;
-            try {
-                projectName = LibertyGradleUtil.getProjectName(virtualFile);
-            } catch (Exception e) {
-                LOGGER.warn(String.format("Could not resolve project name for project %s", virtualFile), e);
-            }
-            if (projectName == null) {
-                if (virtualFile.getParent() != null) {
-                    projectName = virtualFile.getParent().getName();
-                } else {
-                    projectName = project.getName();
-                }
-            }
-
-            boolean validContainerVersion = buildFile.isValidContainerVersion();
-            LibertyModule module = libertyModules.addLibertyModule(new LibertyModule(project, virtualFile, projectName, Constants.LIBERTY_GRADLE_PROJECT, validContainerVersion));
-            node = new LibertyModuleNode(module);
-
-            top.add(node);
-            ArrayList<Object> settings = new ArrayList<Object>();
-            settings.add(virtualFile);
-            settings.add(Constants.LIBERTY_GRADLE_PROJECT);
-            map.put(projectName, settings);
-
-            // ordered to align with IntelliJ's right-click menu
-            node.add(new LibertyActionNode(Constants.LIBERTY_DEV_START, module));
-            // check if Liberty Gradle Plugin is 3.1-M1+
-            // TODO: handle version specified in a gradle.settings file
-            if (buildFile.isValidContainerVersion()) {
-                node.add(new LibertyActionNode(Constants.LIBERTY_DEV_START_CONTAINER, module));
-            }
-            node.add(new LibertyActionNode(Constants.LIBERTY_DEV_CUSTOM_START, module));
-            node.add(new LibertyActionNode(Constants.LIBERTY_DEV_STOP, module));
-            node.add(new LibertyActionNode(Constants.LIBERTY_DEV_TESTS, module));
-            node.add(new LibertyActionNode(Constants.VIEW_GRADLE_TEST_REPORT, module));
+        DefaultMutableTreeNode top = new DefaultMutableTreeNode("Root node");
+        for (LibertyModule module : modules) {
+            top.add(createModuleNode(module));
         }
 
         Tree tree = new Tree(top);
@@ -204,7 +131,7 @@ public class LibertyExplorer extends SimpleToolWindowPanel {
         DataManager.registerDataProvider(tree, newDataProvider);
         TreeDataProvider treeDataProvider = (TreeDataProvider) DataManager.getDataProvider(tree);
 
-        treeDataProvider.setProjectMap(map);
+        treeDataProvider.setProjectMap(getProjectMap(modules));
 
         tree.addTreeSelectionListener(e -> {
             Object node = e.getPath().getLastPathComponent();
@@ -286,6 +213,158 @@ public class LibertyExplorer extends SimpleToolWindowPanel {
         return tree;
     }
 
+    /**
+     * Updates the given Open Liberty Tools Dashboard tree in place with the current Liberty
+     * projects, keeping the nodes of the projects which did not change.
+     * @param project current project
+     * @param tree tree returned by {@link #buildTree(Project, Color)}
+     * @return false if there is no Liberty project anymore
+     */
+    public static boolean updateTree(Project project, Tree tree) {
+        List<LibertyModule> modules = getLibertyModules(project);
+        if (modules == null || modules.isEmpty()) {
+            return false;
+        }
+        DefaultTreeModel model = (DefaultTreeModel) tree.getModel();
+        DefaultMutableTreeNode top = (DefaultMutableTreeNode) model.getRoot();
+
+        Map<VirtualFile, LibertyModuleNode> existingNodes = new HashMap<>();
+        for (int i = 0; i < top.getChildCount(); i++) {
+            LibertyModuleNode node = (LibertyModuleNode) top.getChildAt(i);
+            existingNodes.put(node.getFilePath(), node);
+        }
+        Set<LibertyModuleNode> nodes = new HashSet<>();
+        for (int i = 0; i < modules.size(); i++) {
+            LibertyModule module = modules.get(i);
+            LibertyModuleNode node = existingNodes.get(module.getBuildFile());
+            if (node == null || node.getLibertyModule() != module) {
+                node = createModuleNode(module);
+            } else if (!getActionNames(module).equals(getActionNames(node))) {
+                // type or container support changed
+                node.removeAllChildren();
+                addActionNodes(node, module);
+                model.nodeStructureChanged(node);
+            }
+            if (!module.getName().equals(node.getUserObject())) {
+                node.setUserObject(module.getName());
+                model.nodeChanged(node);
+            }
+            nodes.add(node);
+            if (i >= top.getChildCount() || top.getChildAt(i) != node) {
+                if (node.getParent() != null) {
+                    model.removeNodeFromParent(node);
+                }
+                model.insertNodeInto(node, top, Math.min(i, top.getChildCount()));
+            }
+        }
+        for (int i = top.getChildCount() - 1; i >= 0; i--) {
+            if (!nodes.contains(top.getChildAt(i))) {
+                model.removeNodeFromParent((MutableTreeNode) top.getChildAt(i));
+            }
+        }
+
+        TreeDataProvider treeDataProvider = (TreeDataProvider) DataManager.getDataProvider(tree);
+        if (treeDataProvider != null) {
+            treeDataProvider.setProjectMap(getProjectMap(modules));
+        }
+        return true;
+    }
+
+    /**
+     * Updates the Liberty modules of the project with its current Liberty build files
+     * @param project current project
+     * @return Liberty modules of all valid Liberty Maven and Liberty Gradle projects, null if they could not be found
+     */
+    private static List<LibertyModule> getLibertyModules(Project project) {
+        ArrayList<BuildFile> mavenBuildFiles;
+        ArrayList<BuildFile> gradleBuildFiles;
+        try {
+            mavenBuildFiles = LibertyProjectUtil.getMavenBuildFiles(project);
+            gradleBuildFiles = LibertyProjectUtil.getGradleBuildFiles(project);
+        } catch (IOException | SAXException | ParserConfigurationException e) {
+            LOGGER.warn("Could not find Liberty Maven or Gradle projects in workspace",
+                    e);
+            return null;
+        }
+
+        LibertyModules libertyModules = LibertyModules.getInstance();
+        List<LibertyModule> modules = new ArrayList<>();
+        Set<VirtualFile> buildFiles = new HashSet<>();
+        for (BuildFile buildFile : ContainerUtil.concat(mavenBuildFiles, gradleBuildFiles)) {
+            VirtualFile virtualFile = buildFile.getBuildFile().getVirtualFile();
+            if (virtualFile == null) {
+                LOGGER.error(String.format("Could not resolve current %s project %s", buildFile.getProjectType(), buildFile.getBuildFile()));
+                continue;
+            }
+            String projectName = buildFile.getProjectName();
+            if (projectName == null) {
+                if (virtualFile.getParent() != null) {
+                    projectName = virtualFile.getParent().getName();
+                } else {
+                    projectName = project.getName();
+                }
+            }
+            modules.add(libertyModules.addLibertyModule(new LibertyModule(project, virtualFile, projectName, buildFile.getProjectType(), buildFile.isValidContainerVersion())));
+            buildFiles.add(virtualFile);
+        }
+        // forget the Liberty modules of build files which were removed or are no longer Liberty projects
+        libertyModules.retainForProject(project, buildFiles);
+        return modules;
+    }
+
+    private static HashMap<String, ArrayList<Object>> getProjectMap(List<LibertyModule> modules) {
+        HashMap<String, ArrayList<Object>> map = new HashMap<>();
+        for (LibertyModule module : modules) {
+            ArrayList<Object> settings = new ArrayList<Object>();
+            settings.add(module.getBuildFile());
+            settings.add(module.getProjectType());
+            map.put(module.getName(), settings);
+        }
+        return map;
+    }
+
+    private static LibertyModuleNode createModuleNode(LibertyModule module) {
+        LibertyModuleNode node = new LibertyModuleNode(module);
+        addActionNodes(node, module);
+        return node;
+    }
+
+    private static void addActionNodes(LibertyModuleNode node, LibertyModule module) {
+        for (String actionName : getActionNames(module)) {
+            node.add(new LibertyActionNode(actionName, module));
+        }
+    }
+
+    private static List<String> getActionNames(LibertyModuleNode node) {
+        List<String> actionNames = new ArrayList<>();
+        for (int i = 0; i < node.getChildCount(); i++) {
+            actionNames.add(((LibertyActionNode) node.getChildAt(i)).getName());
+        }
+        return actionNames;
+    }
+
+    private static List<String> getActionNames(LibertyModule module) {
+        List<String> actionNames = new ArrayList<>();
+        // ordered to align with IntelliJ's right-click menu
+        actionNames.add(Constants.LIBERTY_DEV_START);
+        // check if Liberty Maven Plugin is 3.3-M1+ or Liberty Gradle Plugin is 3.1-M1+
+        // if version is not specified in pom, assume latest version as downloaded from maven central
+        if (module.isValidContainerVersion()) {
+            actionNames.add(Constants.LIBERTY_DEV_START_CONTAINER);
+        }
+        actionNames.add(Constants.LIBERTY_DEV_CUSTOM_START);
+        actionNames.add(Constants.LIBERTY_DEV_STOP);
+        actionNames.add(Constants.LIBERTY_DEV_TESTS);
+        if (Constants.LIBERTY_MAVEN_PROJECT.equals(module.getProjectType())) {
+            actionNames.add(Constants.VIEW_INTEGRATION_TEST_REPORT);
+            actionNames.add(Constants.VIEW_UNIT_TEST_REPORT);
+        } else {
+            // TODO: handle version specified in a gradle.settings file
+            actionNames.add(Constants.VIEW_GRADLE_TEST_REPORT);
+        }
+        return actionNames;
+    }
+
     static class LibertyTreeRenderer extends DefaultTreeCellRenderer {
         public LibertyTreeRenderer(Color backgroundColor) {
             setBackgroundNonSelectionColor(backgroundColor);
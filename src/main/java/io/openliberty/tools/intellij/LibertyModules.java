@@ -130,6 +130,27 @@ public class LibertyModules {
         libertyModules.remove(libertyModule.getBuildFile());
     }
 
+    /**
+     * Remove the stored Liberty modules for the given project whose build file is not
+     * in the given build files and that do not have active terminal widgets (running commands)
+     *
+     * @param project
+     * @param buildFiles build files of the Liberty modules to keep
+     */
+    public void retainForProject(Project project, Collection<VirtualFile> buildFiles) {
+        synchronized(libertyModules) {
+            Iterator<LibertyModule> it = libertyModules.values().iterator();
+            while (it.hasNext()) {
+                LibertyModule libertyModule = it.next();
+                // do not remove from list if the corresponding terminal widget has running commands
+                if (project.equals(libertyModule.getProject()) && !buildFiles.contains(libertyModule.getBuildFile())
+                        && !(libertyModule.getShellWidget() != null && libertyModule.getShellWidget().hasRunningCommands())) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
     /**
      * Remove all stored Liberty modules for the given project that
      * do not have active terminal widgets (running commands)
@@ -28,6 +28,7 @@ import java.util.Set;
 public class LibertyProjectSettings implements PersistentStateComponent<LibertyProjectSettings> {
 
     private volatile Set<String> customLibertyProjects = Collections.synchronizedSet(new HashSet<>());
+    private volatile boolean sharedLanguageServerHost;
 
     public static LibertyProjectSettings getInstance(Project project) {
         return project.getService(LibertyProjectSettings.class);
@@ -44,6 +45,17 @@ public class LibertyProjectSettings implements PersistentStateComponent<LibertyP
         this.customLibertyProjects = customLibertyProjects;
     }
 
+    /**
+     * @return true if the language servers of the project run in the shared language server host.
+     */
+    public boolean isSharedLanguageServerHost() {
+        return sharedLanguageServerHost;
+    }
+
+    public void setSharedLanguageServerHost(boolean sharedLanguageServerHost) {
+        this.sharedLanguageServerHost = sharedLanguageServerHost;
+    }
+
     @Nullable
     @Override
     public LibertyProjectSettings getState() {
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.actions;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.fileTypes.PlainTextFileType;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.testFramework.LightVirtualFile;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.LanguageServerWrapper;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.LanguageServiceAccessor;
+import io.openliberty.tools.intellij.util.LocalizedResourceUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Opens a read-only editor with the message metrics of the language servers started for the project.
+ */
+public class DumpLanguageServerMetricsAction extends AnAction implements DumbAware {
+    Logger LOGGER = Logger.getInstance(DumpLanguageServerMetricsAction.class);
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabled(e.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        final Project project = e.getProject();
+        if (project == null) {
+            LOGGER.debug("Unable to dump language server metrics, could not resolve project");
+            return;
+        }
+        StringBuilder dump = new StringBuilder();
+        dump.append(LocalizedResourceUtil.getMessage("language.server.metrics.title", project.getName(), Instant.now())).append("\n\n");
+        List<LanguageServerWrapper> wrappers = LanguageServiceAccessor.getInstance(project).getStartedWrappers();
+        if (wrappers.isEmpty()) {
+            dump.append(LocalizedResourceUtil.getMessage("language.server.metrics.no.servers")).append('\n');
+        }
+        for (LanguageServerWrapper wrapper : wrappers) {
+            dump.append(wrapper.getMetrics().dump()).append('\n');
+        }
+        LightVirtualFile file = new LightVirtualFile("language-server-metrics.txt", PlainTextFileType.INSTANCE, dump.toString());
+        file.setWritable(false);
+        FileEditorManager.getInstance(project).openTextEditor(new OpenFileDescriptor(project, file), true);
+    }
+}
@@ -88,20 +88,13 @@ public abstract class LibertyProjectAction extends LibertyGeneralAction {
         if (mavenBuildFiles.isEmpty() && gradleBuildFiles.isEmpty()) {
             return Collections.emptyList();
         }
-        // Resolve project names and add to list
+        // project names and types are resolved when the build files are classified
         mavenBuildFiles.forEach(mavenBuildFile -> {
-            // resolve project name
             VirtualFile virtualFile = mavenBuildFile.getBuildFile().getVirtualFile();
             if (virtualFile == null) {
                 LOGGER.error(String.format("Could not resolve Maven project for build file: %s", mavenBuildFile.getBuildFile()));
             } else {
-                try {
-                    mavenBuildFile.setProjectName(LibertyMavenUtil.getProjectNameFromPom(virtualFile));
-                    mavenBuildFile.setProjectType(Constants.LIBERTY_MAVEN_PROJECT);
-                    buildFiles.add(mavenBuildFile);
-                } catch (Exception e) {
-                    LOGGER.error(String.format("Could not resolve project name from pom.xml: %s", virtualFile), e.getMessage());
-                }
+                buildFiles.add(mavenBuildFile);
             }
 
         });
@@ -110,13 +103,7 @@ public abstract class LibertyProjectAction extends LibertyGeneralAction {
             if (virtualFile == null) {
                 LOGGER.error(String.format("Could not resolve Gradle project for build file: %s", gradleBuildFile.getBuildFile()));
             } else {
-                try {
-                    gradleBuildFile.setProjectName(LibertyGradleUtil.getProjectName(virtualFile));
-                    gradleBuildFile.setProjectType(Constants.LIBERTY_GRADLE_PROJECT);
-                    buildFiles.add(gradleBuildFile);
-                } catch (Exception e) {
-                    LOGGER.error(String.format("Could not resolve project name from settings.gradle: %s", virtualFile), e.getMessage());
-                }
+                buildFiles.add(gradleBuildFile);
             }
 
         });
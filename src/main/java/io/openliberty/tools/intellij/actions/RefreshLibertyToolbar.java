@@ -21,6 +21,7 @@ import com.intellij.openapi.wm.ToolWindowManager;
 import com.intellij.ui.components.JBTextArea;
 import com.intellij.ui.content.Content;
 import com.intellij.ui.treeStructure.Tree;
+import io.openliberty.tools.intellij.LibertyBuildFiles;
 import io.openliberty.tools.intellij.LibertyExplorer;
 import io.openliberty.tools.intellij.util.Constants;
 import io.openliberty.tools.intellij.util.LibertyProjectUtil;
@@ -65,6 +66,15 @@ public class RefreshLibertyToolbar extends AnAction {
         }
 
         if (existingActionToolbar != null) {
+            // look for build files which were missed by VFS events, only modified build files are classified again
+            LibertyBuildFiles.getInstance(project).rescan();
+            if (existingTree instanceof Tree && LibertyExplorer.updateTree(project, (Tree) existingTree)) {
+                // only the projects which changed are updated in the existing tree
+                simpleToolWindowPanel.revalidate();
+                simpleToolWindowPanel.repaint();
+                return;
+            }
+            // the first Liberty project was added or the last one was removed
             Tree tree = LibertyExplorer.buildTree(project, content.getComponent().getBackground());
             ActionToolbar actionToolbar = LibertyExplorer.buildActionToolbar(tree);
             simpleToolWindowPanel.remove(existingActionToolbar);
@@ -19,9 +19,9 @@ import com.intellij.openapi.vfs.VirtualFile;
 import io.openliberty.tools.intellij.LibertyPluginIcons;
 import io.openliberty.tools.intellij.util.Constants;
 import io.openliberty.tools.intellij.util.LocalizedResourceUtil;
+import io.openliberty.tools.intellij.util.TestReportLocator;
 
 import java.io.File;
-import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
 
@@ -38,9 +38,7 @@ public class ViewIntegrationTestReport extends LibertyGeneralAction {
 
     @Override
     protected void executeLibertyAction() {
-        // get path to project folder
-        final VirtualFile parentFile = buildFile.getParent();
-        File failsafeReportFile = Paths.get(parentFile.getPath(), "target", "site", "failsafe-report.html").normalize().toAbsolutePath().toFile();
+        File failsafeReportFile = TestReportLocator.getMavenIntegrationTestReport(buildFile);
         VirtualFile failsafeReportVirtualFile = LocalFileSystem.getInstance().findFileByIoFile(failsafeReportFile);
 
 
@@ -19,9 +19,9 @@ import com.intellij.openapi.vfs.VirtualFile;
 import io.openliberty.tools.intellij.LibertyPluginIcons;
 import io.openliberty.tools.intellij.util.Constants;
 import io.openliberty.tools.intellij.util.LocalizedResourceUtil;
+import io.openliberty.tools.intellij.util.TestReportLocator;
 
 import java.io.File;
-import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
 
@@ -38,9 +38,7 @@ public class ViewUnitTestReport extends LibertyGeneralAction {
 
     @Override
     protected void executeLibertyAction() {
-        // get path to project folder
-        final VirtualFile parentFile = buildFile.getParent();
-        File surefireReportFile = Paths.get(parentFile.getPath(), "target", "site", "surefire-report.html").normalize().toAbsolutePath().toFile();
+        File surefireReportFile = TestReportLocator.getMavenUnitTestReport(buildFile);
         VirtualFile surefireReportVirtualFile = LocalFileSystem.getInstance().findFileByIoFile(surefireReportFile);
 
         if (surefireReportVirtualFile == null || !surefireReportVirtualFile.exists()) {
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.liberty.lsp;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.startup.StartupActivity;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.LanguageServerSettings;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.LanguageServerWrapper;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.LanguageServersRegistry;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.LanguageServiceAccessor;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Starts the language servers a project is likely to need once the project is opened and indexed, so that
+ * the first completion or hover doesn't wait for a JVM to start and initialize:
+ * <ul>
+ * <li>the Liberty XML and Liberty Config language servers for modules with a Liberty server configuration,</li>
+ * <li>the MicroProfile language server for modules depending on MicroProfile Config,</li>
+ * <li>the Jakarta EE language server for modules depending on Jakarta EE.</li>
+ * </ul>
+ * The servers are started one at a time on a single background thread. Pre-starting is disabled by default
+ * and can be enabled in the Liberty Language Servers settings.
+ */
+public class LanguageServerPrestartActivity implements StartupActivity, DumbAware {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LanguageServerPrestartActivity.class);
+
+    private static final String[] LIBERTY_CONFIG_PATHS = {"src/main/liberty/config/server.xml"};
+    private static final String[] MICROPROFILE_TYPES = {"org.eclipse.microprofile.config.inject.ConfigProperty"};
+    private static final String[] JAKARTA_TYPES = {"jakarta.ws.rs.Path", "jakarta.inject.Inject",
+            "jakarta.servlet.http.HttpServlet", "jakarta.persistence.Entity"};
+    private static final long INITIALIZE_TIMEOUT_SECONDS = 60;
+
+    private static final ExecutorService EXECUTOR = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+            "Liberty Language Servers Prestart", 1);
+
+    @Override
+    public void runActivity(@NotNull Project project) {
+        if (!LanguageServerSettings.getInstance().isPrestartServers()) {
+            return;
+        }
+        ReadAction.nonBlocking(() -> findLanguageServers(project))
+                .inSmartMode(project)
+                .expireWith(project)
+                .submit(EXECUTOR)
+                .onSuccess(servers -> EXECUTOR.execute(() -> prestart(project, servers)));
+    }
+
+    /**
+     * @return the ids of the language servers to start, with the first module needing each of them.
+     */
+    private static Map<String, Module> findLanguageServers(Project project) {
+        Map<String, Module> servers = new LinkedHashMap<>();
+        for (Module module : ModuleManager.getInstance(project).getModules()) {
+            if (hasFile(module, LIBERTY_CONFIG_PATHS)) {
+                servers.putIfAbsent("libertyXml", module);
+                servers.putIfAbsent("libertyls", module);
+            }
+            if (hasType(project, module, MICROPROFILE_TYPES)) {
+                servers.putIfAbsent("lsp4mp", module);
+            }
+            if (hasType(project, module, JAKARTA_TYPES)) {
+                servers.putIfAbsent("jakartals", module);
+            }
+        }
+        return servers;
+    }
+
+    private static boolean hasFile(Module module, String[] paths) {
+        for (VirtualFile root : ModuleRootManager.getInstance(module).getContentRoots()) {
+            for (String path : paths) {
+                if (root.findFileByRelativePath(path) != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasType(Project project, Module module, String[] types) {
+        GlobalSearchScope scope = module.getModuleWithLibrariesScope();
+        JavaPsiFacade facade = JavaPsiFacade.getInstance(project);
+        for (String type : types) {
+            if (facade.findClass(type, scope) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void prestart(Project project, Map<String, Module> servers) {
+        List<String> started = new ArrayList<>();
+        for (Map.Entry<String, Module> entry : servers.entrySet()) {
+            if (project.isDisposed()) {
+                return;
+            }
+            LanguageServersRegistry.LanguageServerDefinition definition = LanguageServersRegistry.getInstance().getDefinition(entry.getKey());
+            if (definition == null) {
+                continue;
+            }
+            try {
+                LanguageServerWrapper wrapper = LanguageServiceAccessor.getInstance(project).prestartLanguageServer(entry.getValue(), definition);
+                // wait for the initialization before starting the next server, to spread the load
+                wrapper.getInitializedServer().get(INITIALIZE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                started.add(entry.getKey());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (TimeoutException e) {
+                LOGGER.warn("Language server " + entry.getKey() + " did not initialize in " + INITIALIZE_TIMEOUT_SECONDS + "s");
+            } catch (Exception e) {
+                LOGGER.warn(e.getLocalizedMessage(), e);
+            }
+        }
+        if (!started.isEmpty()) {
+            LOGGER.info("Prestarted language servers " + started + " for project " + project.getName());
+        }
+    }
+}
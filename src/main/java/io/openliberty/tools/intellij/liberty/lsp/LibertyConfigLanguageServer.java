@@ -19,9 +19,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -40,8 +40,7 @@ public class LibertyConfigLanguageServer extends ProcessStreamConnectionProvider
             return;
         }
         if (libertyServerPath.exists()) {
-            ArrayList<String> params = new ArrayList<>();
-            params.add(javaHome + File.separator + "bin" + File.separator + "java");
+            List<String> params = createJavaCommand(javaHome, "libertyls");
 
             // Uncomment next line to attach debugger to LCLS at port 1064, debug params must come before -jar
             // params.add("-agentlib:jdwp=transport=dt_socket,server=y,suspend=n,address=1064");
@@ -59,7 +58,7 @@ public class LibertyConfigLanguageServer extends ProcessStreamConnectionProvider
         Map<String, Object> root = new HashMap<>();
         Map<String, Object> extendedClientCapabilities = new HashMap<>();
         extendedClientCapabilities.put("completion", new HashMap<>());
-        extendedClientCapabilities.put("shouldLanguageServerExitOnShutdown", Boolean.TRUE);
+        extendedClientCapabilities.put("shouldLanguageServerExitOnShutdown", !isHosted());
         root.put("extendedClientCapabilities", extendedClientCapabilities);
         return root;
     }
@@ -0,0 +1,265 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.liberty.lsp;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.server.LanguageServerWorkspaceCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IDE-wide index of the Liberty runtimes installed in the build output of the open projects.
+ * <p>
+ * A runtime is identified by its product id, its version and a hash of the names of its installed feature manifests.
+ * The server.xml schema of each runtime is generated once and kept under
+ * <code>open-liberty/runtimes/&lt;product&gt;-&lt;version&gt;-&lt;features&gt;</code> in the IDE system directory,
+ * where it is shared by the language servers of every project and survives restarts. The files of the index are
+ * published complete and never modified afterwards.
+ * <p>
+ * Runtimes are looked up by path: a runtime is read again only when its version file or its features directory
+ * was modified, so the modules of a workspace which use the same runtime don't pay for the discovery again.
+ */
+public class LibertyRuntimeIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LibertyRuntimeIndex.class);
+
+    private static final String SCHEMA_FILE_NAME = "server.xsd"; //$NON-NLS-1$
+
+    private static final String[] VERSION_FILES = {"openliberty.properties", "WebSphereApplicationServer.properties"}; //$NON-NLS-1$ //$NON-NLS-2$
+
+    private static final long GENERATION_TIMEOUT_SECONDS = 120;
+
+    private final ExecutorService executor = AppExecutorUtil
+            .createBoundedApplicationPoolExecutor("Liberty Runtime Index", 1); //$NON-NLS-1$
+
+    private final Map<Path, LibertyRuntime> runtimes = new ConcurrentHashMap<>();
+
+    /**
+     * Schemas which were generated, or are being generated, since the IDE started, so a runtime whose
+     * schema can't be generated is tried once per IDE session.
+     */
+    private final Set<String> generating = ConcurrentHashMap.newKeySet();
+
+    public static LibertyRuntimeIndex getInstance() {
+        return ApplicationManager.getApplication().getService(LibertyRuntimeIndex.class);
+    }
+
+    /**
+     * Returns the Liberty runtime installed in the build output of the given module directory,
+     * <code>target/liberty/wlp</code> for Maven and <code>build/wlp</code> for Gradle.
+     *
+     * @param moduleDirectory the directory of the module.
+     * @return the runtime, or <code>null</code> if no runtime is installed.
+     */
+    public @Nullable LibertyRuntime findRuntime(String moduleDirectory) {
+        Path maven = Paths.get(moduleDirectory, "target", "liberty", "wlp"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        if (Files.isDirectory(maven)) {
+            return getRuntime(maven);
+        }
+        Path gradle = Paths.get(moduleDirectory, "build", "wlp"); //$NON-NLS-1$ //$NON-NLS-2$
+        return Files.isDirectory(gradle) ? getRuntime(gradle) : null;
+    }
+
+    /**
+     * Returns the Liberty runtime installed in the given directory.
+     *
+     * @param directory the <code>wlp</code> directory of the runtime.
+     * @return the runtime, or <code>null</code> if the directory has no Liberty version file.
+     */
+    public @Nullable LibertyRuntime getRuntime(Path directory) {
+        Path normalized = directory.toAbsolutePath().normalize();
+        Path versionFile = getVersionFile(normalized);
+        if (versionFile == null) {
+            runtimes.remove(normalized);
+            return null;
+        }
+        String stamp = versionFile.toFile().lastModified() + ":" + getFeaturesDirectory(normalized).toFile().lastModified(); //$NON-NLS-1$
+        LibertyRuntime runtime = runtimes.get(normalized);
+        if (runtime != null && runtime.stamp.equals(stamp)) {
+            return runtime;
+        }
+        try {
+            runtime = readRuntime(normalized, versionFile, stamp);
+            runtimes.put(normalized, runtime);
+            return runtime;
+        } catch (IOException e) {
+            LOGGER.warn("Unable to index the Liberty runtime " + normalized + ": " + e.getLocalizedMessage(), e); //$NON-NLS-1$ //$NON-NLS-2$
+            return null;
+        }
+    }
+
+    /**
+     * Returns the server.xml schema of the given runtime, and schedules its generation with the
+     * <code>ws-schemagen</code> tool of the runtime when it was not generated yet.
+     *
+     * @param runtime the runtime.
+     * @return the schema, or <code>null</code> if it is not generated yet.
+     */
+    public @Nullable Path getSchema(LibertyRuntime runtime) {
+        Path schema = runtime.getIndexDirectory().resolve(SCHEMA_FILE_NAME);
+        if (Files.isRegularFile(schema)) {
+            return schema;
+        }
+        if (generating.add(runtime.getKey())) {
+            executor.execute(() -> generateSchema(runtime.getDirectory(), schema));
+        }
+        return null;
+    }
+
+    private static Path getIndexRoot() {
+        return Paths.get(PathManager.getSystemPath(), "open-liberty", "runtimes"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private static Path getFeaturesDirectory(Path runtime) {
+        return runtime.resolve("lib").resolve("features"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private static Path getVersionFile(Path runtime) {
+        for (String name : VERSION_FILES) {
+            Path versionFile = runtime.resolve("lib").resolve("versions").resolve(name); //$NON-NLS-1$ //$NON-NLS-2$
+            if (Files.isRegularFile(versionFile)) {
+                return versionFile;
+            }
+        }
+        return null;
+    }
+
+    private static LibertyRuntime readRuntime(Path runtime, Path versionFile, String stamp) throws IOException {
+        Properties version = new Properties();
+        try (InputStream input = Files.newInputStream(versionFile)) {
+            version.load(input);
+        }
+        String productId = version.getProperty("com.ibm.websphere.productId", "unknown"); //$NON-NLS-1$ //$NON-NLS-2$
+        String productVersion = version.getProperty("com.ibm.websphere.productVersion", "unknown"); //$NON-NLS-1$ //$NON-NLS-2$
+
+        // the names of the feature manifests identify the installed features without reading them
+        List<String> manifests = new ArrayList<>();
+        String[] names = getFeaturesDirectory(runtime).toFile().list((dir, name) -> name.endsWith(".mf")); //$NON-NLS-1$
+        if (names != null) {
+            manifests.addAll(Arrays.asList(names));
+        }
+        Collections.sort(manifests);
+        MessageDigest digest = LanguageServerWorkspaceCache.createDigest();
+        for (String manifest : manifests) {
+            digest.update(manifest.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        String key = sanitize(productId) + '-' + sanitize(productVersion) + '-'
+                + LanguageServerWorkspaceCache.toHex(digest.digest()).substring(0, 12);
+        return new LibertyRuntime(runtime, key, productId, productVersion, getIndexRoot().resolve(key), stamp);
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^A-Za-z0-9._]", "_"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private static void generateSchema(Path runtime, Path schema) {
+        Path schemaGenerator = runtime.resolve("bin").resolve("tools").resolve("ws-schemagen.jar"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        String javaHome = System.getProperty("java.home"); //$NON-NLS-1$
+        if (!Files.isRegularFile(schemaGenerator) || javaHome == null) {
+            LOGGER.info("Unable to generate the server.xml schema of the Liberty runtime " + runtime + ", the schema generator is not available"); //$NON-NLS-1$ //$NON-NLS-2$
+            return;
+        }
+        Path temp = null;
+        try {
+            Files.createDirectories(schema.getParent());
+            temp = Files.createTempFile(schema.getParent(), SCHEMA_FILE_NAME, ".tmp"); //$NON-NLS-1$
+            Process process = new ProcessBuilder(javaHome + File.separator + "bin" + File.separator + "java", //$NON-NLS-1$ //$NON-NLS-2$
+                    "-jar", schemaGenerator.toString(), temp.toString()) //$NON-NLS-1$
+                    .directory(runtime.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (!process.waitFor(GENERATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                LOGGER.warn("Timed out generating the server.xml schema of the Liberty runtime " + runtime); //$NON-NLS-1$
+            } else if (process.exitValue() != 0 || Files.size(temp) == 0) {
+                LOGGER.warn("Unable to generate the server.xml schema of the Liberty runtime " + runtime //$NON-NLS-1$
+                        + ", the schema generator exited with " + process.exitValue()); //$NON-NLS-1$
+            } else {
+                Files.move(temp, schema, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                LOGGER.info("Generated the server.xml schema of the Liberty runtime " + runtime + ": " + schema); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Unable to generate the server.xml schema of the Liberty runtime " + runtime + ": " + e.getLocalizedMessage(), e); //$NON-NLS-1$ //$NON-NLS-2$
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (temp != null) {
+                FileUtil.delete(temp.toFile());
+            }
+        }
+    }
+
+    /**
+     * Read-only metadata of an indexed Liberty runtime.
+     */
+    public static final class LibertyRuntime {
+        private final Path directory;
+        private final String key;
+        private final String productId;
+        private final String productVersion;
+        private final Path indexDirectory;
+        private final String stamp;
+
+        private LibertyRuntime(Path directory, String key, String productId, String productVersion,
+                               Path indexDirectory, String stamp) {
+            this.directory = directory;
+            this.key = key;
+            this.productId = productId;
+            this.productVersion = productVersion;
+            this.indexDirectory = indexDirectory;
+            this.stamp = stamp;
+        }
+
+        /**
+         * @return the <code>wlp</code> directory of the runtime.
+         */
+        public Path getDirectory() {
+            return directory;
+        }
+
+        /**
+         * @return the product id, version and features hash which identify the runtime in the index.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        public String getProductId() {
+            return productId;
+        }
+
+        public String getProductVersion() {
+            return productVersion;
+        }
+
+        /**
+         * @return the directory of the index which holds the metadata shared by the runtimes with the same key.
+         */
+        public Path getIndexDirectory() {
+            return indexDirectory;
+        }
+    }
+}
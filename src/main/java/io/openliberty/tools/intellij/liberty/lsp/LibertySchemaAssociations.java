@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.liberty.lsp;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import io.openliberty.tools.intellij.liberty.lsp.LibertyRuntimeIndex.LibertyRuntime;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.LSPIJUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Associates the server.xml of each module with the schema of the Liberty runtime installed in the build output
+ * of the module, <code>target/liberty/wlp</code> for Maven and <code>build/wlp</code> for Gradle.
+ * <p>
+ * The schemas are generated once per runtime version and installed features by the {@link LibertyRuntimeIndex}.
+ * server.xml files don't reference a schema, so LemMinX gets the cached schema of each module in
+ * <code>xml.fileAssociations</code> and validates server.xml without reading the runtime or the network.
+ * A runtime whose schema is still being generated is used the next time the language server starts.
+ */
+public final class LibertySchemaAssociations {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LibertySchemaAssociations.class);
+
+    private static final String SERVER_XML = "/src/main/liberty/config/server.xml"; //$NON-NLS-1$
+
+    private LibertySchemaAssociations() {
+
+    }
+
+    /**
+     * Adds the server.xml file associations of the project of the given root to the given LemMinX settings,
+     * and schedules the generation of the schemas which are not cached yet.
+     *
+     * @param rootUri the root of the language server.
+     * @param xml the <code>xml</code> settings of LemMinX.
+     */
+    public static void configure(URI rootUri, Map<String, Object> xml) {
+        try {
+            Project project = getProject(rootUri);
+            if (project == null) {
+                return;
+            }
+            List<Map<String, String>> fileAssociations = new ArrayList<>();
+            LibertyRuntimeIndex index = LibertyRuntimeIndex.getInstance();
+            for (String root : ReadAction.compute(() -> getContentRoots(project))) {
+                LibertyRuntime runtime = index.findRuntime(root);
+                Path schema = runtime != null ? index.getSchema(runtime) : null;
+                if (schema == null) {
+                    continue;
+                }
+                Map<String, String> fileAssociation = new HashMap<>();
+                fileAssociation.put("pattern", root + SERVER_XML); //$NON-NLS-1$
+                fileAssociation.put("systemId", schema.toUri().toString()); //$NON-NLS-1$
+                fileAssociations.add(fileAssociation);
+            }
+            if (!fileAssociations.isEmpty()) {
+                xml.put("fileAssociations", fileAssociations); //$NON-NLS-1$
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to associate server.xml with the Liberty schemas: " + e.getLocalizedMessage(), e); //$NON-NLS-1$
+        }
+    }
+
+    private static Project getProject(URI rootUri) {
+        VirtualFile root = LSPIJUtils.findResourceFor(rootUri);
+        if (root == null) {
+            return null;
+        }
+        Module module = LSPIJUtils.getProject(root);
+        return module != null ? module.getProject() : null;
+    }
+
+    private static List<String> getContentRoots(Project project) {
+        List<String> roots = new ArrayList<>();
+        for (Module module : ModuleManager.getInstance(project).getModules()) {
+            for (VirtualFile contentRoot : ModuleRootManager.getInstance(module).getContentRoots()) {
+                if (!roots.contains(contentRoot.getPath())) {
+                    roots.add(contentRoot.getPath());
+                }
+            }
+        }
+        return roots;
+    }
+}
@@ -19,8 +19,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.net.URI;
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -30,6 +31,8 @@ import java.util.Map;
 public class LibertyXmlServer extends ProcessStreamConnectionProvider {
     private static final Logger LOGGER = LoggerFactory.getLogger(LibertyXmlServer.class);
 
+    private static final String SERVER_ID = "libertyXml";
+
     public LibertyXmlServer() {
         IdeaPluginDescriptor descriptor = PluginManagerCore.getPlugin(PluginId.getId("open-liberty.intellij"));
         File lemminxServerPath = new File(descriptor.getPluginPath().toFile(), "lib/server/org.eclipse.lemminx-uber.jar");
@@ -40,8 +43,7 @@ public class LibertyXmlServer extends ProcessStreamConnectionProvider {
             return;
         }
         if (lemminxServerPath.exists() && libertyServerPath.exists()) {
-            ArrayList<String> params = new ArrayList<>();
-            params.add(javaHome + File.separator + "bin" + File.separator + "java");
+            List<String> params = createJavaCommand(javaHome, SERVER_ID);
             // TODO enable debugging via IntelliJ configuration without manually changing this line of code
             // Comment out line 46 and replace with the one below for debugging LemMinX, will pause server until debugger attaches to port 1054
             // params.add("-agentlib:jdwp=transport=dt_socket,server=y,address=1054");
@@ -60,7 +62,11 @@ public class LibertyXmlServer extends ProcessStreamConnectionProvider {
     //            "xml": {
     //                "trace": {
     //                    "server": "verbose"
-    //                }
+    //                },
+    //                "server": {
+    //                    "workDir": "<persistent cache directory of the project>"
+    //                },
+    //                "fileAssociations": [{"pattern": "<module>/src/main/liberty/config/server.xml", "systemId": "<cached schema>"}]
     //            },
     //        "extendedClientCapabilities": {
     //            "completion": {},
@@ -76,11 +82,19 @@ public class LibertyXmlServer extends ProcessStreamConnectionProvider {
 
         trace.put("server", "verbose");
         xml.put("trace", trace); // TODO enable tracing so LemMinX stdout and stderr are redirected to IntelliJ log
+        Path workDir = getWorkspaceCacheDirectory(SERVER_ID);
+        if (workDir != null) {
+            // LemMinX caches the downloaded XSD and DTD files in its work directory
+            Map<String, Object> server = new HashMap<>();
+            server.put("workDir", workDir.toString());
+            xml.put("server", server);
+        }
+        LibertySchemaAssociations.configure(rootUri, xml);
         settings.put("xml", xml);
         root.put("settings", settings);
         // Additional configuration
         extendedClientCapabilities.put("completion", new HashMap<>());
-        extendedClientCapabilities.put("shouldLanguageServerExitOnShutdown", Boolean.TRUE);
+        extendedClientCapabilities.put("shouldLanguageServerExitOnShutdown", !isHosted());
         root.put("extendedClientCapabilities", extendedClientCapabilities);
 
         return root;
@@ -34,6 +34,7 @@ import static io.openliberty.tools.intellij.util.Constants.SERVER_ENV_GLOB_PATTE
  */
 public class ServerEnvFileType extends LanguageFileType implements FileTypeIdentifiableByVirtualFile {
 
+    private static final PathMatcher SERVER_ENV_MATCHER = FileSystems.getDefault().getPathMatcher("glob:" + SERVER_ENV_GLOB_PATTERN);
     public static final ServerEnvFileType INSTANCE = new ServerEnvFileType();
 
 
@@ -44,8 +45,7 @@ public class ServerEnvFileType extends LanguageFileType implements FileTypeIdent
     @Override
     public boolean isMyFileType(@NotNull VirtualFile file) {
         Path path = Paths.get(file.getPath());
-        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + SERVER_ENV_GLOB_PATTERN);
-        return matcher.matches(path);
+        return SERVER_ENV_MATCHER.matches(path);
     }
 
     @Override
@@ -35,6 +35,7 @@ import static io.openliberty.tools.intellij.util.Constants.SERVER_ENV_GLOB_PATTE
  */
 public class ServerEnvSubstitutor extends LanguageSubstitutor {
     private static final Logger LOGGER = LoggerFactory.getLogger(ServerEnvSubstitutor.class);
+    private static final PathMatcher SERVER_ENV_MATCHER = FileSystems.getDefault().getPathMatcher("glob:" + SERVER_ENV_GLOB_PATTERN);
 
     @Override
     public @Nullable Language getLanguage(@NotNull VirtualFile file, @NotNull Project project) {
@@ -48,7 +49,6 @@ public class ServerEnvSubstitutor extends LanguageSubstitutor {
 
     private boolean isLibertyServerEnvFile(VirtualFile file) {
         Path path = Paths.get(file.getPath());
-        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + SERVER_ENV_GLOB_PATTERN);
-        return matcher.matches(path);
+        return SERVER_ENV_MATCHER.matches(path);
     }
 }
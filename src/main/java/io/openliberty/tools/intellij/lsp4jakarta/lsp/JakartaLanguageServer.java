@@ -22,6 +22,7 @@ import java.io.File;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class JakartaLanguageServer extends ProcessStreamConnectionProvider {
@@ -38,8 +39,9 @@ public class JakartaLanguageServer extends ProcessStreamConnectionProvider {
             return;
         }
         if (lsp4JakartaServerPath.exists()) {
-            setCommands(Arrays.asList(javaHome + File.separator + "bin" + File.separator + "java", "-jar",
-                    lsp4JakartaServerPath.getAbsolutePath(), "-DrunAsync=true"));
+            List<String> params = createJavaCommand(javaHome, "jakartals");
+            params.addAll(Arrays.asList("-jar", lsp4JakartaServerPath.getAbsolutePath(), "-DrunAsync=true"));
+            setCommands(params);
         } else {
             LOGGER.warn(String.format("Unable to start Eclipse LSP4Jakarata. Eclipse LSP4Jakarta server path: %s does not exist"), lsp4JakartaServerPath);
         }
@@ -49,7 +51,7 @@ public class JakartaLanguageServer extends ProcessStreamConnectionProvider {
     public Object getInitializationOptions(URI rootUri) {
         Map<String, Object> root = new HashMap<>();
         Map<String, Object> extendedClientCapabilities = new HashMap<>();
-        extendedClientCapabilities.put("shouldLanguageServerExitOnShutdown", Boolean.TRUE);
+        extendedClientCapabilities.put("shouldLanguageServerExitOnShutdown", !isHosted());
         root.put("extendedClientCapabilities", extendedClientCapabilities);
         return root;
     }
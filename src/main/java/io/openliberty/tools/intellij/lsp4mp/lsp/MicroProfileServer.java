@@ -22,6 +22,7 @@ import java.io.File;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -41,8 +42,9 @@ public class MicroProfileServer extends ProcessStreamConnectionProvider {
             return;
         }
         if (lsp4mpServerPath.exists()) {
-            setCommands(Arrays.asList(javaHome + File.separator + "bin" + File.separator + "java", "-jar",
-                    lsp4mpServerPath.getAbsolutePath(), "-DrunAsync=true"));
+            List<String> params = createJavaCommand(javaHome, "lsp4mp");
+            params.addAll(Arrays.asList("-jar", lsp4mpServerPath.getAbsolutePath(), "-DrunAsync=true"));
+            setCommands(params);
         } else {
             LOGGER.warn(String.format("Unable to start Eclipse LSP4MP. Eclipse LSP4MP server path: %s does not exist"), lsp4mpServerPath);
         }
@@ -70,7 +72,7 @@ public class MicroProfileServer extends ProcessStreamConnectionProvider {
         commands.put("commandsKind", commandsKind);
         extendedClientCapabilities.put("commands", commands);
         extendedClientCapabilities.put("completion", new HashMap<>());
-        extendedClientCapabilities.put("shouldLanguageServerExitOnShutdown", Boolean.TRUE);
+        extendedClientCapabilities.put("shouldLanguageServerExitOnShutdown", !isHosted());
         root.put("extendedClientCapabilities", extendedClientCapabilities);
         return root;
     }
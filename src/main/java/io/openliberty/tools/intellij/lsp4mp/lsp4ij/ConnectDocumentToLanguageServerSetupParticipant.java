@@ -14,6 +14,7 @@ import com.intellij.openapi.components.ProjectComponent;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileEditor.FileEditorManagerEvent;
 import com.intellij.openapi.fileEditor.FileEditorManagerListener;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
@@ -51,6 +52,17 @@ public class ConnectDocumentToLanguageServerSetupParticipant implements ProjectC
         }
     }
 
+    @Override
+    public void selectionChanged(@NotNull FileEditorManagerEvent event) {
+        VirtualFile file = event.getNewFile();
+        URI uri = file != null ? LSPIJUtils.toUri(file) : null;
+        if (uri != null) {
+            // Reconnect the file if it was closed on the server side to save memory
+            LanguageServiceAccessor.getInstance(project).getStartedWrappers()
+                    .forEach(wrapper -> wrapper.documentFocused(uri));
+        }
+    }
+
     @Override
     public void fileClosed(@NotNull FileEditorManager source, @NotNull VirtualFile file) {
         URI uri = LSPIJUtils.toUri(file);
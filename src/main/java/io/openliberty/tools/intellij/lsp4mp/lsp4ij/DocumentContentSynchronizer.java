@@ -29,6 +29,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DocumentContentSynchronizer implements DocumentListener {
     private final static Logger LOGGER = LoggerFactory.getLogger(DocumentContentSynchronizer.class);
@@ -41,15 +42,32 @@ public class DocumentContentSynchronizer implements DocumentListener {
     URI fileUri;
     private final TextDocumentSyncKind syncKind;
 
-    private int version = 0;
+    private int version;
     private final List<TextDocumentContentChangeEvent> changeEvents;
     private long modificationStamp;
+    private volatile long lastFocused = System.nanoTime();
+    /**
+     * The size of the document included in {@link LanguageServerWrapper#getSynchronizedDocumentBytes()}.
+     */
+    private final AtomicLong accountedBytes = new AtomicLong();
     final @Nonnull
     CompletableFuture<Void> didOpenFuture;
 
     public DocumentContentSynchronizer(@Nonnull LanguageServerWrapper languageServerWrapper,
                                        @Nonnull Document document,
                                        TextDocumentSyncKind syncKind) {
+        this(languageServerWrapper, document, syncKind, 0);
+    }
+
+    /**
+     * @param version the version of the document to open, used to open a document again at the version
+     *                it had in a language server which was restarted, or 0 to start from the first version.
+     */
+    DocumentContentSynchronizer(@Nonnull LanguageServerWrapper languageServerWrapper,
+                                @Nonnull Document document,
+                                TextDocumentSyncKind syncKind,
+                                int version) {
+        this.version = Math.max(0, version - 1);
         this.languageServerWrapper = languageServerWrapper;
         this.fileUri = LSPIJUtils.toUri(document);
         this.modificationStamp = -1;
@@ -77,7 +95,8 @@ public class DocumentContentSynchronizer implements DocumentListener {
         textDocument.setLanguageId(languageId);
         textDocument.setVersion(++version);
         didOpenFuture = languageServerWrapper.getInitializedServer()
-                .thenAcceptAsync(ls -> ls.getTextDocumentService().didOpen(new DidOpenTextDocumentParams(textDocument)));
+                .thenAcceptAsync(ls -> ls.getTextDocumentService().didOpen(new DidOpenTextDocumentParams(textDocument)),
+                        languageServerWrapper.getDispatchExecutor());
 
         // Initialize LSP change events
         changeEvents = new ArrayList<>();
@@ -114,7 +133,7 @@ public class DocumentContentSynchronizer implements DocumentListener {
         changeParamsToSend.getTextDocument().setUri(fileUri.toString());
         changeParamsToSend.getTextDocument().setVersion(++version);
         languageServerWrapper.getInitializedServer()
-                .thenAcceptAsync(ls -> ls.getTextDocumentService().didChange(changeParamsToSend));
+                .thenAcceptAsync(ls -> ls.getTextDocumentService().didChange(changeParamsToSend), languageServerWrapper.getDispatchExecutor());
     }
 
     @Override
@@ -164,7 +183,7 @@ public class DocumentContentSynchronizer implements DocumentListener {
 
     public void documentSaved(long timestamp) {
         this.modificationStamp = timestamp;
-        ServerCapabilities serverCapabilities = languageServerWrapper.getServerCapabilities();
+        ServerCapabilities serverCapabilities = languageServerWrapper.getServerCapabilitiesIfInitialized();
         if (serverCapabilities != null) {
             Either<TextDocumentSyncKind, TextDocumentSyncOptions> textDocumentSync = serverCapabilities.getTextDocumentSync();
             if (textDocumentSync.isRight() && textDocumentSync.getRight().getSave() == null) {
@@ -173,7 +192,7 @@ public class DocumentContentSynchronizer implements DocumentListener {
         }
         TextDocumentIdentifier identifier = new TextDocumentIdentifier(fileUri.toString());
         DidSaveTextDocumentParams params = new DidSaveTextDocumentParams(identifier, document.getText());
-        languageServerWrapper.getInitializedServer().thenAcceptAsync(ls -> ls.getTextDocumentService().didSave(params));
+        languageServerWrapper.getInitializedServer().thenAcceptAsync(ls -> ls.getTextDocumentService().didSave(params), languageServerWrapper.getDispatchExecutor());
     }
 
     public void documentClosed() {
@@ -181,7 +200,7 @@ public class DocumentContentSynchronizer implements DocumentListener {
         if (languageServerWrapper.isActive()) {
             TextDocumentIdentifier identifier = new TextDocumentIdentifier(fileUri.toString());
             DidCloseTextDocumentParams params = new DidCloseTextDocumentParams(identifier);
-            languageServerWrapper.getInitializedServer().thenAcceptAsync(ls -> ls.getTextDocumentService().didClose(params));
+            languageServerWrapper.getInitializedServer().thenAcceptAsync(ls -> ls.getTextDocumentService().didClose(params), languageServerWrapper.getDispatchExecutor());
         }
     }
 
@@ -206,6 +225,40 @@ public class DocumentContentSynchronizer implements DocumentListener {
         return version;
     }
 
+    void focused() {
+        lastFocused = System.nanoTime();
+    }
+
+    long getLastFocused() {
+        return lastFocused;
+    }
+
+    /**
+     * @return the size of the text of the document, as UTF-16 characters.
+     */
+    long getSizeInBytes() {
+        return 2L * document.getTextLength();
+    }
+
+    /**
+     * Records the current size of the document as accounted.
+     *
+     * @return the difference with the size accounted before.
+     */
+    long updateAccountedBytes() {
+        long size = getSizeInBytes();
+        return size - accountedBytes.getAndSet(size);
+    }
+
+    /**
+     * Forgets the accounted size of the document, when it's not synchronized anymore.
+     *
+     * @return the size accounted before.
+     */
+    long clearAccountedBytes() {
+        return accountedBytes.getAndSet(0);
+    }
+
     private void logDocument(String header, Document document) {
         LOGGER.warn(header + " text='" + document.getText());
         VirtualFile file = FileDocumentManager.getInstance().getFile(document);
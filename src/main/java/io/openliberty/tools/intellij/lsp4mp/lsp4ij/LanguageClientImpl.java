@@ -31,6 +31,7 @@ public class LanguageClientImpl implements LanguageClient {
 
     private LanguageServer server;
     private LanguageServerWrapper wrapper;
+    private LanguageServerExecutors.BackgroundExecutor backgroundExecutor;
 
     public LanguageClientImpl(Project project) {
         this.project = project;
@@ -44,12 +45,21 @@ public class LanguageClientImpl implements LanguageClient {
         this.server = server;
         this.wrapper = wrapper;
         this.diagnosticHandler = new LSPDiagnosticHandler(wrapper);
+        this.backgroundExecutor = LanguageServerExecutors.createBackgroundExecutor(wrapper.serverDefinition.id);
     }
 
     protected final LanguageServer getLanguageServer() {
         return server;
     }
 
+    /**
+     * @return the number of computations which are running or waiting to run on the background executor.
+     */
+    public int getPendingBackgroundTasks() {
+        LanguageServerExecutors.BackgroundExecutor executor = backgroundExecutor;
+        return executor != null ? executor.getPendingTasks() : 0;
+    }
+
     @Override
     public void telemetryEvent(Object object) {
         // TODO
@@ -74,7 +84,7 @@ public class LanguageClientImpl implements LanguageClient {
 
     @Override
     public final void logMessage(MessageParams message) {
-        CompletableFuture.runAsync(() -> ServerMessageHandler.logMessage(wrapper, message));
+        CompletableFuture.runAsync(() -> ServerMessageHandler.logMessage(wrapper, message), wrapper.getDispatchExecutor());
     }
 
     @Override
@@ -89,12 +99,12 @@ public class LanguageClientImpl implements LanguageClient {
 
     @Override
     public CompletableFuture<Void> registerCapability(RegistrationParams params) {
-        return CompletableFuture.runAsync(() -> wrapper.registerCapability(params));
+        return CompletableFuture.runAsync(() -> wrapper.registerCapability(params), wrapper.getDispatchExecutor());
     }
 
     @Override
     public CompletableFuture<Void> unregisterCapability(UnregistrationParams params) {
-        return CompletableFuture.runAsync(() -> wrapper.unregisterCapability(params));
+        return CompletableFuture.runAsync(() -> wrapper.unregisterCapability(params), wrapper.getDispatchExecutor());
     }
 
     @Override
@@ -106,23 +116,34 @@ public class LanguageClientImpl implements LanguageClient {
         return CompletableFuture.completedFuture(res);
     }
 
+    /**
+     * Runs the given PSI computation on the background executor of the language server.
+     * When the project is in dumb mode, the computation is queued until indexing is finished.
+     * When too many computations are pending for the language server, the returned future is cancelled.
+     * The time spent waiting and running is recorded in the {@link LanguageServerMetrics} under the given title.
+     */
     protected <R> CompletableFuture<R> runAsBackground(String title, Supplier<R> supplier) {
         CompletableFuture<R> future = new CompletableFuture<>();
-        CompletableFuture.runAsync(() -> {
-            Runnable task = () -> ProgressManager.getInstance().runProcess(() -> {
-                try {
-                    future.complete(supplier.get());
-                } catch (Throwable t) {
-                    future.completeExceptionally(t);
-                }
-            }, new EmptyProgressIndicator());
+        long submitted = System.nanoTime();
+        Runnable task = () -> ProgressManager.getInstance().runProcess(() -> {
+            long started = System.nanoTime();
+            boolean failed = false;
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable t) {
+                failed = true;
+                future.completeExceptionally(t);
+            } finally {
+                wrapper.getMetrics().onBackgroundTask(title, started - submitted, System.nanoTime() - started, failed);
+            }
+        }, new EmptyProgressIndicator());
+        return backgroundExecutor.submit(() -> {
             if (DumbService.getInstance(getProject()).isDumb()) {
-                DumbService.getInstance(getProject()).runWhenSmart(task);
+                DumbService.getInstance(getProject()).runWhenSmart(() -> backgroundExecutor.submit(task, future));
             } else {
                 task.run();
             }
-        });
-        return future;
+        }, future);
     }
 
 }
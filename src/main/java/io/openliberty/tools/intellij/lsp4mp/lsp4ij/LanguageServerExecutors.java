@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.lsp4mp.lsp4ij;
+
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named, bounded executors used by the language servers.
+ * <p>
+ * All executors are backed by the IntelliJ application pool, so idle executors hold no threads:
+ * <ul>
+ * <li>the listener executor runs the JSON-RPC reader of a single connection to a server, a new one is
+ * created each time the server is started,</li>
+ * <li>the dispatch executor sends notifications (didOpen, didChange...) to a single server in order. It only
+ * runs short tasks, the process of the server is launched on the application pool,</li>
+ * <li>the background executor runs the PSI work requested by a single server. It is limited per server
+ * and shares a global limit with all the other servers, and rejects new tasks once its queue is full.</li>
+ * </ul>
+ * Limits can be tuned with the <code>open-liberty.intellij.ls.*</code> system properties.
+ */
+public final class LanguageServerExecutors {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LanguageServerExecutors.class);
+
+    private static final int MAX_BACKGROUND_THREADS = Integer.getInteger("open-liberty.intellij.ls.maxBackgroundThreads",
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int MAX_BACKGROUND_THREADS_PER_SERVER = Integer.getInteger("open-liberty.intellij.ls.maxBackgroundThreadsPerServer", 2);
+    private static final int MAX_QUEUED_TASKS_PER_SERVER = Integer.getInteger("open-liberty.intellij.ls.maxQueuedTasksPerServer", 64);
+
+    private static final ExecutorService BACKGROUND_EXECUTOR = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+            "Liberty Language Servers Background", MAX_BACKGROUND_THREADS);
+
+    private LanguageServerExecutors() {
+
+    }
+
+    /**
+     * Returns an executor running the JSON-RPC message reader of a connection to the given language server.
+     *
+     * @param serverId the language server id.
+     * @return an executor running at most one task at a time.
+     */
+    public static ExecutorService createListenerExecutor(String serverId) {
+        return AppExecutorUtil.createBoundedApplicationPoolExecutor("Liberty Language Server Listener (" + serverId + ")", 1);
+    }
+
+    /**
+     * Returns an executor sending notifications to the given language server in submission order.
+     *
+     * @param serverId the language server id.
+     * @return an executor running at most one task at a time.
+     */
+    public static ExecutorService createDispatchExecutor(String serverId) {
+        return AppExecutorUtil.createBoundedApplicationPoolExecutor("Liberty Language Server Dispatch (" + serverId + ")", 1);
+    }
+
+    /**
+     * Returns an executor running the PSI work requested by the given language server.
+     *
+     * @param serverId the language server id.
+     * @return a bounded executor with backpressure.
+     */
+    public static BackgroundExecutor createBackgroundExecutor(String serverId) {
+        return new BackgroundExecutor(serverId, AppExecutorUtil.createBoundedApplicationPoolExecutor(
+                "Liberty Language Server Background (" + serverId + ")", BACKGROUND_EXECUTOR, MAX_BACKGROUND_THREADS_PER_SERVER),
+                MAX_QUEUED_TASKS_PER_SERVER);
+    }
+
+    /**
+     * Bounded executor which rejects tasks when too many of them are pending for a language server.
+     */
+    public static class BackgroundExecutor implements Executor {
+
+        private final String serverId;
+        private final ExecutorService delegate;
+        private final int maxPendingTasks;
+        private final AtomicInteger pendingTasks = new AtomicInteger();
+
+        private BackgroundExecutor(String serverId, ExecutorService delegate, int maxPendingTasks) {
+            this.serverId = serverId;
+            this.delegate = delegate;
+            this.maxPendingTasks = maxPendingTasks;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (pendingTasks.incrementAndGet() > maxPendingTasks) {
+                pendingTasks.decrementAndGet();
+                throw new RejectedExecutionException("Too many pending tasks for language server " + serverId); //$NON-NLS-1$
+            }
+            try {
+                delegate.execute(() -> {
+                    try {
+                        command.run();
+                    } finally {
+                        pendingTasks.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                pendingTasks.decrementAndGet();
+                throw e;
+            }
+        }
+
+        /**
+         * Submits the given task, or cancels the returned future if the queue of the language server is full.
+         * The cancellation is reported to the language server as a cancelled request.
+         *
+         * @param task the task to run.
+         * @param future the future completed by the task.
+         * @return the given future.
+         */
+        public <R> CompletableFuture<R> submit(Runnable task, CompletableFuture<R> future) {
+            try {
+                execute(task);
+            } catch (RejectedExecutionException e) {
+                LOGGER.warn(e.getLocalizedMessage());
+                future.completeExceptionally(new CancellationException(e.getLocalizedMessage()));
+            }
+            return future;
+        }
+
+        /**
+         * @return the number of tasks which are running or waiting to run.
+         */
+        public int getPendingTasks() {
+            return pendingTasks.get();
+        }
+    }
+}
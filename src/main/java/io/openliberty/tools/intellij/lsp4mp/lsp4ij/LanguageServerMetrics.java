@@ -0,0 +1,653 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.lsp4mp.lsp4ij;
+
+import com.google.gson.JsonObject;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.eclipse.lsp4j.jsonrpc.MessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.json.MessageJsonHandler;
+import org.eclipse.lsp4j.jsonrpc.json.StreamMessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.messages.Message;
+import org.eclipse.lsp4j.jsonrpc.messages.NotificationMessage;
+import org.eclipse.lsp4j.jsonrpc.messages.RequestMessage;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of the messages exchanged with a language server, per method.
+ * <p>
+ * Latencies are measured between a request and its response, in both directions: requests sent to the
+ * server and callbacks sent by the server (e.g. the Java completion requested by lsp4mp). The time spent
+ * by the callbacks waiting for and running on the background executor is recorded separately, so a slow
+ * callback can be told apart from a slow server or transport.
+ * <p>
+ * Recording costs a few atomic operations per message. Payload sizes require serializing the message a
+ * second time and are only recorded when enabled with {@link #setRecordPayloadSizes(boolean)} or the
+ * <code>open-liberty.intellij.ls.metrics.payloadSizes</code> system property.
+ */
+public class LanguageServerMetrics {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LanguageServerMetrics.class);
+
+    private static final boolean ENABLED = !Boolean.getBoolean("open-liberty.intellij.ls.metrics.disabled");
+    private static final int MAX_PENDING_REQUESTS = 10000;
+    private static final long SLOW_REQUEST_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong("open-liberty.intellij.ls.metrics.slowRequestMillis", 1000));
+    private static final int MAX_SLOW_REQUESTS = 20;
+    private static final int MAX_LIFECYCLE_EVENTS = 50;
+
+    /**
+     * Upper bounds of the latency histogram buckets, in milliseconds. The last bucket is unbounded.
+     */
+    private static final long[] BUCKET_BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+
+    /**
+     * Kind of the measured operation.
+     */
+    public enum Kind {
+        /** Request sent to the language server, measured until its response is received. */
+        REQUEST("client -> server"),
+        /** Request sent by the language server, measured until its response is sent. */
+        CALLBACK("server -> client"),
+        /** Notification sent to the language server. */
+        NOTIFICATION_OUT("notification client -> server"),
+        /** Notification sent by the language server. */
+        NOTIFICATION_IN("notification server -> client"),
+        /** Time spent by a callback waiting for the background executor. */
+        QUEUE("background queue"),
+        /** Time spent by a callback running on the background executor. */
+        WORK("background work");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final String serverId;
+    private final Map<Key, Statistics> statistics = new ConcurrentHashMap<>();
+    private final Map<String, Pending> pendingRequests = new ConcurrentHashMap<>();
+    private final Map<String, Pending> pendingCallbacks = new ConcurrentHashMap<>();
+    private final Deque<SlowRequest> slowRequests = new ConcurrentLinkedDeque<>();
+    private final Deque<LifecycleEvent> lifecycleEvents = new ConcurrentLinkedDeque<>();
+    private volatile boolean recordPayloadSizes = Boolean.getBoolean("open-liberty.intellij.ls.metrics.payloadSizes");
+    private volatile long startTime = System.currentTimeMillis();
+    private volatile MessageJsonHandler jsonHandler;
+
+    public LanguageServerMetrics(String serverId) {
+        this.serverId = serverId;
+    }
+
+    public String getServerId() {
+        return serverId;
+    }
+
+    public boolean isRecordPayloadSizes() {
+        return recordPayloadSizes;
+    }
+
+    public void setRecordPayloadSizes(boolean recordPayloadSizes) {
+        this.recordPayloadSizes = recordPayloadSizes;
+    }
+
+    /**
+     * Records a JSON-RPC message passing through the launcher.
+     *
+     * @param message the message.
+     * @param outgoing true if the message is sent to the language server, false if it was received from it.
+     */
+    public void onMessage(Message message, boolean outgoing) {
+        if (!ENABLED) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (message instanceof RequestMessage) {
+            RequestMessage request = (RequestMessage) message;
+            Map<String, Pending> pending = outgoing ? pendingRequests : pendingCallbacks;
+            if (request.getId() != null && pending.size() < MAX_PENDING_REQUESTS) {
+                pending.put(request.getId(), new Pending(request.getMethod(), request.getParams(), now));
+            }
+            recordPayloadSize(outgoing ? Kind.REQUEST : Kind.CALLBACK, request.getMethod(), message);
+        } else if (message instanceof ResponseMessage) {
+            ResponseMessage response = (ResponseMessage) message;
+            Map<String, Pending> pending = outgoing ? pendingCallbacks : pendingRequests;
+            Pending request = response.getId() != null ? pending.remove(response.getId()) : null;
+            if (request != null) {
+                Kind kind = outgoing ? Kind.CALLBACK : Kind.REQUEST;
+                long nanos = now - request.startNanos;
+                getStatistics(kind, request.method).record(nanos, response.getError() != null);
+                if (nanos >= SLOW_REQUEST_NANOS) {
+                    addSlowRequest(new SlowRequest(System.currentTimeMillis(), kind, request.method, getUri(request.params), nanos));
+                }
+                recordPayloadSize(kind, request.method, message);
+            }
+        } else if (message instanceof NotificationMessage) {
+            NotificationMessage notification = (NotificationMessage) message;
+            Kind kind = outgoing ? Kind.NOTIFICATION_OUT : Kind.NOTIFICATION_IN;
+            getStatistics(kind, notification.getMethod()).record(-1, false);
+            recordPayloadSize(kind, notification.getMethod(), message);
+        }
+    }
+
+    /**
+     * Records a JSON-RPC message passing through the given launcher consumer.
+     *
+     * @param message the message.
+     * @param consumer the consumer receiving the message. Messages given to the stream consumer are sent
+     *                 to the language server, the other ones were received from it.
+     */
+    public void onMessage(Message message, MessageConsumer consumer) {
+        onMessage(message, consumer instanceof StreamMessageConsumer);
+    }
+
+    /**
+     * Records the time spent by a callback on the background executor.
+     *
+     * @param name the name of the callback.
+     * @param queueNanos the time spent waiting for the executor, in nanoseconds.
+     * @param workNanos the time spent running, in nanoseconds.
+     * @param failed true if the callback failed.
+     */
+    public void onBackgroundTask(String name, long queueNanos, long workNanos, boolean failed) {
+        if (!ENABLED) {
+            return;
+        }
+        getStatistics(Kind.QUEUE, name).record(queueNanos, false);
+        getStatistics(Kind.WORK, name).record(workNanos, failed);
+        if (workNanos >= SLOW_REQUEST_NANOS) {
+            addSlowRequest(new SlowRequest(System.currentTimeMillis(), Kind.WORK, name, null, workNanos));
+        }
+    }
+
+    /**
+     * Records a change of the state of the language server, e.g. a start, a restart or a failure.
+     *
+     * @param description the description of the event.
+     */
+    public void onLifecycleEvent(String description) {
+        lifecycleEvents.addLast(new LifecycleEvent(System.currentTimeMillis(), description));
+        while (lifecycleEvents.size() > MAX_LIFECYCLE_EVENTS) {
+            lifecycleEvents.pollFirst();
+        }
+    }
+
+    /**
+     * @return the most recent requests which were slower than the
+     * <code>open-liberty.intellij.ls.metrics.slowRequestMillis</code> threshold, most recent first.
+     */
+    public List<SlowRequest> getSlowRequests() {
+        List<SlowRequest> result = new ArrayList<>(slowRequests);
+        Collections.reverse(result);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @return the most recent lifecycle events of the language server, most recent first.
+     */
+    public List<LifecycleEvent> getLifecycleEvents() {
+        List<LifecycleEvent> result = new ArrayList<>(lifecycleEvents);
+        Collections.reverse(result);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Forgets the requests which are waiting for a response, e.g. when the language server is stopped.
+     */
+    public void clearPendingRequests() {
+        pendingRequests.clear();
+        pendingCallbacks.clear();
+    }
+
+    /**
+     * @return the number of requests sent to the language server which are waiting for a response.
+     */
+    public int getPendingRequestCount() {
+        return pendingRequests.size();
+    }
+
+    /**
+     * @return the number of callbacks sent by the language server which are waiting for a response.
+     */
+    public int getPendingCallbackCount() {
+        return pendingCallbacks.size();
+    }
+
+    /**
+     * Resets all the counters.
+     */
+    public void reset() {
+        statistics.clear();
+        slowRequests.clear();
+        startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * @return the time when the metrics started to be recorded, in milliseconds since the epoch.
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return a snapshot of the statistics, sorted by total time, longest first.
+     */
+    public List<MethodStatistics> getStatistics() {
+        List<MethodStatistics> result = new ArrayList<>(statistics.size());
+        statistics.forEach((key, value) -> result.add(value.snapshot(key)));
+        result.sort(Comparator.comparingLong(MethodStatistics::getTotalNanos).reversed()
+                .thenComparing(MethodStatistics::getCount, Comparator.reverseOrder()));
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @return a human readable dump of the statistics.
+     */
+    public String dump() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Language server: ").append(serverId).append('\n'); //$NON-NLS-1$
+        builder.append("Pending requests: ").append(getPendingRequestCount()) //$NON-NLS-1$
+                .append(", pending callbacks: ").append(getPendingCallbackCount()).append('\n'); //$NON-NLS-1$
+        builder.append(String.format("%-32s %-56s %8s %6s %10s %10s %10s %10s %12s%n", //$NON-NLS-1$
+                "Kind", "Method", "Count", "Errors", "Avg ms", "p50 ms", "p95 ms", "Max ms", "Avg bytes")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$
+        for (MethodStatistics stats : getStatistics()) {
+            builder.append(String.format("%-32s %-56s %8d %6d %10s %10s %10s %10s %12s%n", //$NON-NLS-1$
+                    stats.getKind().getLabel(), stats.getMethod(), stats.getCount(), stats.getErrorCount(),
+                    stats.isTimed() ? String.format("%.1f", stats.getAverageMillis()) : "-", //$NON-NLS-1$ //$NON-NLS-2$
+                    stats.isTimed() ? formatPercentile(stats.getPercentileMillis(0.5)) : "-", //$NON-NLS-1$
+                    stats.isTimed() ? formatPercentile(stats.getPercentileMillis(0.95)) : "-", //$NON-NLS-1$
+                    stats.isTimed() ? String.format("%.1f", stats.getMaxMillis()) : "-", //$NON-NLS-1$ //$NON-NLS-2$
+                    stats.getPayloadCount() > 0 ? Long.toString(stats.getTotalPayloadBytes() / stats.getPayloadCount()) : "-")); //$NON-NLS-1$
+        }
+        List<SlowRequest> slow = getSlowRequests();
+        if (!slow.isEmpty()) {
+            builder.append("Slow requests:\n"); //$NON-NLS-1$
+            for (SlowRequest request : slow) {
+                builder.append(String.format("  %tT %-32s %-56s %8d ms %s%n", request.getTimestamp(), request.getKind().getLabel(), //$NON-NLS-1$
+                        request.getMethod(), request.getMillis(), request.getUri() != null ? request.getUri() : "")); //$NON-NLS-1$
+            }
+        }
+        return builder.toString();
+    }
+
+    private void addSlowRequest(SlowRequest request) {
+        slowRequests.addLast(request);
+        while (slowRequests.size() > MAX_SLOW_REQUESTS) {
+            slowRequests.pollFirst();
+        }
+    }
+
+    /**
+     * Returns the URI of the document targeted by the given request parameters, if any. This is only
+     * called for slow requests, so reflection is acceptable here.
+     */
+    @Nullable
+    private static String getUri(@Nullable Object params) {
+        try {
+            if (params instanceof JsonObject) {
+                JsonObject json = (JsonObject) params;
+                if (json.has("textDocument") && json.get("textDocument").isJsonObject()) { //$NON-NLS-1$ //$NON-NLS-2$
+                    json = json.getAsJsonObject("textDocument"); //$NON-NLS-1$
+                }
+                return json.has("uri") && json.get("uri").isJsonPrimitive() ? json.get("uri").getAsString() : null; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            }
+            if (params != null) {
+                for (Method method : params.getClass().getMethods()) {
+                    if (method.getParameterCount() == 0 && method.getName().equals("getTextDocument")) { //$NON-NLS-1$
+                        Object textDocument = method.invoke(params);
+                        return textDocument instanceof TextDocumentIdentifier ? ((TextDocumentIdentifier) textDocument).getUri()
+                                : textDocument instanceof TextDocumentItem ? ((TextDocumentItem) textDocument).getUri() : null;
+                    }
+                    if (method.getParameterCount() == 0 && method.getName().equals("getUri") //$NON-NLS-1$
+                            && method.getReturnType() == String.class) {
+                        return (String) method.invoke(params);
+                    }
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.debug(e.getLocalizedMessage(), e);
+        }
+        return null;
+    }
+
+    private static String formatPercentile(long millis) {
+        return millis == Long.MAX_VALUE ? ">=" + BUCKET_BOUNDS[BUCKET_BOUNDS.length - 1] : "<" + millis; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private Statistics getStatistics(Kind kind, String method) {
+        return statistics.computeIfAbsent(new Key(kind, method != null ? method : "<unknown>"), k -> new Statistics()); //$NON-NLS-1$
+    }
+
+    private void recordPayloadSize(Kind kind, String method, Message message) {
+        if (!recordPayloadSizes) {
+            return;
+        }
+        try {
+            CountingWriter writer = new CountingWriter();
+            getJsonHandler().serialize(message, writer);
+            getStatistics(kind, method).recordPayload(writer.count);
+        } catch (Exception e) {
+            LOGGER.debug(e.getLocalizedMessage(), e);
+        }
+    }
+
+    private MessageJsonHandler getJsonHandler() {
+        if (jsonHandler == null) {
+            jsonHandler = new MessageJsonHandler(Collections.emptyMap());
+        }
+        return jsonHandler;
+    }
+
+    /**
+     * Snapshot of the statistics of a method.
+     */
+    public static class MethodStatistics {
+
+        private final Kind kind;
+        private final String method;
+        private final long count;
+        private final long errorCount;
+        private final long timedCount;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] buckets;
+        private final long payloadCount;
+        private final long totalPayloadBytes;
+
+        private MethodStatistics(Kind kind, String method, long count, long errorCount, long timedCount, long totalNanos,
+                                 long maxNanos, long[] buckets, long payloadCount, long totalPayloadBytes) {
+            this.kind = kind;
+            this.method = method;
+            this.count = count;
+            this.errorCount = errorCount;
+            this.timedCount = timedCount;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.buckets = buckets;
+            this.payloadCount = payloadCount;
+            this.totalPayloadBytes = totalPayloadBytes;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        /**
+         * @return true if the latency of the method is measured, false for notifications.
+         */
+        public boolean isTimed() {
+            return timedCount > 0;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public double getAverageMillis() {
+            return timedCount > 0 ? (double) totalNanos / timedCount / TimeUnit.MILLISECONDS.toNanos(1) : 0;
+        }
+
+        public double getMaxMillis() {
+            return (double) maxNanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        /**
+         * Returns the upper bound of the histogram bucket containing the given percentile.
+         *
+         * @param percentile the percentile, between 0 and 1.
+         * @return the upper bound in milliseconds, or {@link Long#MAX_VALUE} for the unbounded bucket.
+         */
+        public long getPercentileMillis(double percentile) {
+            long threshold = (long) Math.ceil(timedCount * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+                seen += buckets[i];
+                if (seen >= threshold) {
+                    return BUCKET_BOUNDS[i];
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        /**
+         * @return the number of messages in each latency bucket, see {@link #getBucketBounds()}.
+         */
+        public long[] getBuckets() {
+            return buckets.clone();
+        }
+
+        /**
+         * @return the upper bounds of the latency buckets in milliseconds. The last bucket is unbounded.
+         */
+        public static long[] getBucketBounds() {
+            return BUCKET_BOUNDS.clone();
+        }
+
+        public long getPayloadCount() {
+            return payloadCount;
+        }
+
+        public long getTotalPayloadBytes() {
+            return totalPayloadBytes;
+        }
+    }
+
+    /**
+     * A request which was slower than the slow request threshold.
+     */
+    public static class SlowRequest {
+
+        private final long timestamp;
+        private final Kind kind;
+        private final String method;
+        private final @Nullable String uri;
+        private final long nanos;
+
+        private SlowRequest(long timestamp, Kind kind, String method, @Nullable String uri, long nanos) {
+            this.timestamp = timestamp;
+            this.kind = kind;
+            this.method = method;
+            this.uri = uri;
+            this.nanos = nanos;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public @Nullable String getUri() {
+            return uri;
+        }
+
+        public long getMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+    }
+
+    /**
+     * A change of the state of the language server.
+     */
+    public static class LifecycleEvent {
+
+        private final long timestamp;
+        private final String description;
+
+        private LifecycleEvent(long timestamp, String description) {
+            this.timestamp = timestamp;
+            this.description = description;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private static class Statistics {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder timedCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+        private final LongAdder payloadCount = new LongAdder();
+        private final LongAdder totalPayloadBytes = new LongAdder();
+
+        private void record(long nanos, boolean error) {
+            count.increment();
+            if (error) {
+                errorCount.increment();
+            }
+            if (nanos >= 0) {
+                timedCount.increment();
+                totalNanos.add(nanos);
+                maxNanos.accumulateAndGet(nanos, Math::max);
+                buckets.incrementAndGet(bucketOf(TimeUnit.NANOSECONDS.toMillis(nanos)));
+            }
+        }
+
+        private void recordPayload(long bytes) {
+            payloadCount.increment();
+            totalPayloadBytes.add(bytes);
+        }
+
+        private static int bucketOf(long millis) {
+            for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+                if (millis < BUCKET_BOUNDS[i]) {
+                    return i;
+                }
+            }
+            return BUCKET_BOUNDS.length;
+        }
+
+        private MethodStatistics snapshot(Key key) {
+            long[] values = new long[buckets.length()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = buckets.get(i);
+            }
+            return new MethodStatistics(key.kind, key.method, count.sum(), errorCount.sum(), timedCount.sum(),
+                    totalNanos.sum(), maxNanos.get(), values, payloadCount.sum(), totalPayloadBytes.sum());
+        }
+    }
+
+    private static class Key {
+
+        private final Kind kind;
+        private final String method;
+
+        private Key(Kind kind, String method) {
+            this.kind = kind;
+            this.method = method;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return kind == other.kind && method.equals(other.method);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * kind.hashCode() + method.hashCode();
+        }
+    }
+
+    private static class Pending {
+
+        private final String method;
+        private final @Nullable Object params;
+        private final long startNanos;
+
+        private Pending(String method, @Nullable Object params, long startNanos) {
+            this.method = method;
+            this.params = params;
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * Writer counting the serialized characters without keeping them.
+     */
+    private static class CountingWriter extends Writer {
+
+        private long count;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void flush() {
+
+        }
+
+        @Override
+        public void close() {
+
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.lsp4mp.lsp4ij;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.util.execution.ParametersListUtil;
+import com.intellij.util.xmlb.XmlSerializerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * IDE-wide settings of the language servers started by the plugin.
+ * <p>
+ * Each language server runs in its own JVM. Without options, every JVM gets the platform default heap,
+ * which is a quarter of the physical memory. The defaults below keep the language servers small and quick
+ * to start: a bounded heap and metaspace, the serial collector, and the C1 compiler only.
+ * The JVM options are read when a language server is started, so changes apply to the next start.
+ */
+@State(
+        name = "LibertyLanguageServerSettings",
+        storages = @Storage("liberty-language-servers.xml")
+)
+public class LanguageServerSettings implements PersistentStateComponent<LanguageServerSettings> {
+
+    private static final String COMMON_JVM_OPTIONS = "-XX:+UseSerialGC -XX:TieredStopAtLevel=1 -XX:MaxMetaspaceSize=256m -Xss1m -Xms32m";
+
+    private static final Map<String, String> DEFAULT_JVM_OPTIONS = Map.of(
+            "lsp4mp", "-Xmx512m " + COMMON_JVM_OPTIONS,
+            "jakartals", "-Xmx512m " + COMMON_JVM_OPTIONS,
+            "libertyls", "-Xmx256m " + COMMON_JVM_OPTIONS,
+            "libertyXml", "-Xmx768m " + COMMON_JVM_OPTIONS,
+            "host", "-Xmx1536m " + COMMON_JVM_OPTIONS);
+
+    /**
+     * JVM options customized by the user, by language server id.
+     */
+    private volatile Map<String, String> jvmOptions = new HashMap<>();
+
+    /**
+     * Whether the language servers likely needed by a project are started when the project is opened.
+     * Off by default: the servers are otherwise started when the first document needing them is opened.
+     */
+    private volatile boolean prestartServers = false;
+
+    /**
+     * Maximum size in megabytes of the documents synchronized with each language server, 0 for no limit.
+     * Beyond the limit, the least recently focused documents are closed on the server side.
+     */
+    private volatile int documentSizeLimitMegabytes = 32;
+
+    public static LanguageServerSettings getInstance() {
+        return ApplicationManager.getApplication().getService(LanguageServerSettings.class);
+    }
+
+    public synchronized Map<String, String> getJvmOptions() {
+        if (jvmOptions == null) {
+            jvmOptions = new HashMap<>();
+        }
+        return jvmOptions;
+    }
+
+    public synchronized void setJvmOptions(Map<String, String> jvmOptions) {
+        this.jvmOptions = jvmOptions;
+    }
+
+    public boolean isPrestartServers() {
+        return prestartServers;
+    }
+
+    public void setPrestartServers(boolean prestartServers) {
+        this.prestartServers = prestartServers;
+    }
+
+    public int getDocumentSizeLimitMegabytes() {
+        return documentSizeLimitMegabytes;
+    }
+
+    public void setDocumentSizeLimitMegabytes(int documentSizeLimitMegabytes) {
+        this.documentSizeLimitMegabytes = documentSizeLimitMegabytes;
+    }
+
+    /**
+     * @return the maximum size in bytes of the documents synchronized with each language server,
+     * 0 for no limit.
+     */
+    public long getDocumentSizeLimitBytes() {
+        return Math.max(0, documentSizeLimitMegabytes) * 1024L * 1024L;
+    }
+
+    /**
+     * Returns the JVM options of the given language server, as entered in the settings.
+     *
+     * @param serverId the language server id.
+     * @return the customized options, or the default options if they are not customized.
+     */
+    @NotNull
+    public synchronized String getServerJvmOptions(@NotNull String serverId) {
+        String options = getJvmOptions().get(serverId);
+        return options != null ? options : getDefaultJvmOptions(serverId);
+    }
+
+    /**
+     * Sets the JVM options of the given language server. Options equal to the defaults are not stored,
+     * so that the language server follows future changes of the defaults.
+     *
+     * @param serverId the language server id.
+     * @param options the JVM options.
+     */
+    public synchronized void setServerJvmOptions(@NotNull String serverId, @Nullable String options) {
+        if (options == null || options.trim().equals(getDefaultJvmOptions(serverId))) {
+            getJvmOptions().remove(serverId);
+        } else {
+            getJvmOptions().put(serverId, options.trim());
+        }
+    }
+
+    /**
+     * @param serverId the language server id.
+     * @return the JVM options of the given language server, split into arguments.
+     */
+    @NotNull
+    public List<String> getJvmArguments(@NotNull String serverId) {
+        return ParametersListUtil.parse(getServerJvmOptions(serverId));
+    }
+
+    @NotNull
+    public static String getDefaultJvmOptions(@NotNull String serverId) {
+        return DEFAULT_JVM_OPTIONS.getOrDefault(serverId, COMMON_JVM_OPTIONS);
+    }
+
+    @Nullable
+    @Override
+    public LanguageServerSettings getState() {
+        return this;
+    }
+
+    @Override
+    public void loadState(@NotNull LanguageServerSettings state) {
+        XmlSerializerUtil.copyBean(state, this);
+    }
+}
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.lsp4mp.lsp4ij;
+
+import com.intellij.util.concurrency.AppExecutorUtil;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.server.SharedLanguageServerHost;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Stops several language servers in parallel within one overall deadline.
+ * <p>
+ * All the servers receive the LSP shutdown and exit sequence at the same time and their processes are
+ * asked to terminate. The processes still alive at the deadline, and their child processes, are killed
+ * with {@link ProcessHandle#destroyForcibly()}, then the coordinator verifies that they are gone, including
+ * the processes launched by a start or a restart while the servers were stopped.
+ * Language server processes are also killed when the IDE exits without closing its projects.
+ * The deadline can be tuned with the <code>open-liberty.intellij.ls.shutdownTimeoutMillis</code> system property.
+ */
+public final class LanguageServerShutdownCoordinator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LanguageServerShutdownCoordinator.class);
+
+    private static final long KILL_TIMEOUT_MILLIS = 2000;
+
+    /**
+     * Language server processes which are alive, killed when the IDE exits without closing its projects.
+     */
+    private static final Set<ProcessHandle> PROCESSES = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> PROCESSES.forEach(process -> {
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+        }), "Liberty Language Servers Shutdown")); //$NON-NLS-1$
+    }
+
+    private LanguageServerShutdownCoordinator() {
+
+    }
+
+    /**
+     * Registers a language server process, so that it's killed if it's still alive when the IDE exits.
+     *
+     * @param process the process of a language server.
+     */
+    public static void track(ProcessHandle process) {
+        if (PROCESSES.add(process)) {
+            process.onExit().thenRun(() -> PROCESSES.remove(process));
+        }
+    }
+
+    /**
+     * Stops the given language servers on a pooled thread, without blocking the caller. The processes
+     * still alive when the IDE exits are killed by the shutdown hook.
+     *
+     * @param wrappers the language servers to stop.
+     * @return a future completed with true if all the processes are gone.
+     */
+    public static CompletableFuture<Boolean> shutdownAsync(Collection<LanguageServerWrapper> wrappers) {
+        if (wrappers.isEmpty()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return CompletableFuture.supplyAsync(() -> shutdown(wrappers), AppExecutorUtil.getAppExecutorService());
+    }
+
+    /**
+     * Stops the given language servers and waits at most the shutdown timeout, plus the time needed to
+     * kill the processes which didn't exit by themselves.
+     *
+     * @param wrappers the language servers to stop.
+     * @return true if all the processes are gone.
+     */
+    public static boolean shutdown(Collection<LanguageServerWrapper> wrappers) {
+        return shutdown(wrappers, LanguageServerWrapper.SHUTDOWN_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Stops the given language servers within the given deadline.
+     *
+     * @param wrappers the language servers to stop.
+     * @param timeoutMillis the overall time given to the servers to exit by themselves.
+     * @return true if all the processes are gone.
+     */
+    public static boolean shutdown(Collection<LanguageServerWrapper> wrappers, long timeoutMillis) {
+        if (wrappers.isEmpty()) {
+            return true;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        ProcessHandle host = SharedLanguageServerHost.getInstance().getProcessHandle();
+        List<ProcessHandle> processes = new ArrayList<>();
+        List<CompletableFuture<Void>> stops = new ArrayList<>();
+        for (LanguageServerWrapper wrapper : wrappers) {
+            ProcessHandle process = wrapper.getProcessHandle();
+            // the shared host outlives the language servers it runs
+            if (process != null && !Objects.equals(process, host)) {
+                processes.add(process);
+            }
+            try {
+                stops.add(wrapper.stopAsync());
+            } catch (Exception e) {
+                LOGGER.warn(e.getLocalizedMessage(), e);
+            }
+        }
+
+        awaitStops(stops, deadline, timeoutMillis);
+
+        // processes launched while the servers were stopped: by a start in flight, or by a restart
+        List<CompletableFuture<Void>> lateStops = new ArrayList<>();
+        for (LanguageServerWrapper wrapper : wrappers) {
+            ProcessHandle process = wrapper.getProcessHandle();
+            boolean restarted = process != null && !Objects.equals(process, host) && !processes.contains(process);
+            if (restarted) {
+                processes.add(process);
+            }
+            if (restarted || wrapper.isInitializing()) {
+                try {
+                    lateStops.add(wrapper.stopAsync());
+                } catch (Exception e) {
+                    LOGGER.warn(e.getLocalizedMessage(), e);
+                }
+            }
+        }
+        awaitStops(lateStops, deadline, timeoutMillis);
+        for (LanguageServerWrapper wrapper : wrappers) {
+            for (ProcessHandle process : wrapper.getProcessesStoppedWhileStarting()) {
+                if (!processes.contains(process)) {
+                    processes.add(process);
+                }
+            }
+        }
+        // the shared host exits once its last language server is stopped
+        if (host != null && !Objects.equals(host, SharedLanguageServerHost.getInstance().getProcessHandle())
+                && !processes.contains(host)) {
+            processes.add(host);
+        }
+
+        for (ProcessHandle process : processes) {
+            waitForExit(process, remaining(deadline));
+        }
+
+        boolean allGone = true;
+        for (ProcessHandle process : processes) {
+            if (process.isAlive()) {
+                LOGGER.warn("Killing language server process " + process.pid() + " which did not exit in " + timeoutMillis + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
+                process.destroyForcibly();
+            }
+        }
+        long killDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(KILL_TIMEOUT_MILLIS);
+        for (ProcessHandle process : processes) {
+            if (!waitForExit(process, remaining(killDeadline))) {
+                LOGGER.error("Language server process " + process.pid() + " is still alive after being killed"); //$NON-NLS-1$ //$NON-NLS-2$
+                allGone = false;
+            }
+        }
+        return allGone;
+    }
+
+    private static void awaitStops(List<CompletableFuture<Void>> stops, long deadline, long timeoutMillis) {
+        if (stops.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(stops.toArray(new CompletableFuture[0])).get(remaining(deadline), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            LOGGER.info("Language servers did not complete their shutdown in " + timeoutMillis + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+        } catch (ExecutionException e) {
+            LOGGER.warn(e.getLocalizedMessage(), e);
+        }
+    }
+
+    private static boolean waitForExit(ProcessHandle process, long timeoutNanos) {
+        if (!process.isAlive()) {
+            return true;
+        }
+        try {
+            process.onExit().get(Math.max(0, timeoutNanos), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException | ExecutionException e) {
+            // still alive
+        }
+        return !process.isAlive();
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+}
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.lsp4mp.lsp4ij;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when a language server whose process exited unexpectedly is restarted.
+ * <p>
+ * Restarts are delayed with an exponential backoff, starting at
+ * <code>open-liberty.intellij.ls.restart.initialDelayMillis</code> (default 1000) and doubling on each
+ * consecutive crash up to <code>open-liberty.intellij.ls.restart.maxDelayMillis</code> (default 60000).
+ * The backoff is reset once the server has been running for {@link #STABLE_RUN_MILLIS}.
+ * <p>
+ * At most <code>open-liberty.intellij.ls.restart.maxRestarts</code> (default 5) restarts are done within
+ * <code>open-liberty.intellij.ls.restart.windowMinutes</code> (default 10). Beyond that, the server is
+ * left stopped until it's started again by the user, e.g. by reopening a document.
+ */
+class LanguageServerSupervisor {
+
+    private static final long INITIAL_DELAY_MILLIS = Long.getLong("open-liberty.intellij.ls.restart.initialDelayMillis", 1000);
+    private static final long MAX_DELAY_MILLIS = Long.getLong("open-liberty.intellij.ls.restart.maxDelayMillis", 60000);
+    private static final int MAX_RESTARTS = Integer.getInteger("open-liberty.intellij.ls.restart.maxRestarts", 5);
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(Long.getLong("open-liberty.intellij.ls.restart.windowMinutes", 10));
+    private static final long STABLE_RUN_MILLIS = TimeUnit.MINUTES.toMillis(3);
+
+    /**
+     * Times of the restarts done within the rate limit window.
+     */
+    private final Deque<Long> restarts = new ArrayDeque<>();
+    private int consecutiveCrashes;
+    private long startNanos;
+
+    /**
+     * Called when the language server is started, by the user or by a restart.
+     */
+    synchronized void onStarted() {
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Called when the process of the language server exited while the server was not being stopped.
+     *
+     * @return the delay in milliseconds before restarting the language server, or -1 if the language
+     * server must not be restarted because it crashed too often.
+     */
+    synchronized long onCrash() {
+        long now = System.nanoTime();
+        if (TimeUnit.NANOSECONDS.toMillis(now - startNanos) >= STABLE_RUN_MILLIS) {
+            consecutiveCrashes = 0;
+        }
+        while (!restarts.isEmpty() && now - restarts.peekFirst() > WINDOW_NANOS) {
+            restarts.removeFirst();
+        }
+        if (restarts.size() >= MAX_RESTARTS) {
+            return -1;
+        }
+        restarts.addLast(now);
+        long delay = INITIAL_DELAY_MILLIS << Math.min(consecutiveCrashes, 20);
+        consecutiveCrashes++;
+        return Math.min(delay, MAX_DELAY_MILLIS);
+    }
+}
@@ -27,7 +27,11 @@ import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.ModuleListener;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.intellij.util.messages.MessageBusConnection;
+import io.openliberty.tools.intellij.LibertyProjectSettings;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.server.ProcessStreamConnectionProvider;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.server.SharedLanguageServerHost;
 import io.openliberty.tools.intellij.lsp4mp.lsp4ij.server.StreamConnectionProvider;
 import org.eclipse.lsp4j.*;
 import org.eclipse.lsp4j.jsonrpc.Launcher;
@@ -52,24 +56,27 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.UnaryOperator;
 
 public class LanguageServerWrapper {
     private static final Logger LOGGER = LoggerFactory.getLogger(LanguageServerWrapper.class);//$NON-NLS-1$
     private static final String CLIENT_NAME = "IntelliJ";
+    static final long SHUTDOWN_TIMEOUT_MILLIS = Long.getLong("open-liberty.intellij.ls.shutdownTimeoutMillis", 5000);
 
     class Listener implements DocumentListener, FileDocumentManagerListener {
         @Override
@@ -80,6 +87,26 @@ public class LanguageServerWrapper {
                 if (documentListener != null && documentListener.getModificationStamp() < event.getOldTimeStamp()) {
                     documentListener.documentSaved(event.getOldTimeStamp());
                 }
+                if (documentListener != null && event.getNewLength() != event.getOldLength()) {
+                    long size = synchronizedDocumentBytes.addAndGet(documentListener.updateAccountedBytes());
+                    if (connectedDocuments.get(uri) != documentListener) {
+                        // disconnected meanwhile, its size is not synchronized anymore
+                        size = synchronizedDocumentBytes.addAndGet(-documentListener.clearAccountedBytes());
+                    }
+                    // a growing document can take the synchronized documents over the limit, the documents
+                    // are closed on the server side in the background since this is called on the EDT
+                    long limit = LanguageServerSettings.getInstance().getDocumentSizeLimitBytes();
+                    if (limit > 0 && size > limit && documentSizeLimitScheduled.compareAndSet(false, true)) {
+                        dispatchExecutor.execute(() -> {
+                            documentSizeLimitScheduled.set(false);
+                            synchronized (connectedDocuments) {
+                                if (connectedDocuments.containsKey(uri)) {
+                                    enforceDocumentSizeLimit(uri);
+                                }
+                            }
+                        });
+                    }
+                }
             }
         }
 
@@ -102,17 +129,57 @@ public class LanguageServerWrapper {
     protected final Module initialProject;
     @Nonnull
     protected final Set<Module> allWatchedProjects;
+    /**
+     * Documents connected to the language server. Reads are lock-free, connections are serialized
+     * by synchronizing on this map.
+     */
     @Nonnull
-    protected Map<URI, DocumentContentSynchronizer> connectedDocuments;
+    protected final Map<URI, DocumentContentSynchronizer> connectedDocuments;
+    /**
+     * Documents still open in an editor but closed on the server side to stay under the document size limit,
+     * connected again when they are focused.
+     */
+    @Nonnull
+    protected final Set<URI> suspendedDocuments;
     @Nullable
     protected final URI initialPath;
 
-    protected StreamConnectionProvider lspStreamProvider;
+    protected volatile StreamConnectionProvider lspStreamProvider;
     private Future<?> launcherFuture;
     private CompletableFuture<Void> initializeFuture;
     private LanguageServer languageServer;
+    private LanguageClientImpl languageClient;
     private ServerCapabilities serverCapabilities;
     private AtomicBoolean stopping = new AtomicBoolean(false);
+    private volatile CompletableFuture<Void> stopFuture;
+    private final AtomicInteger startCount = new AtomicInteger();
+    /**
+     * The size of the documents synchronized with the language server, updated when documents are
+     * connected, changed or disconnected.
+     */
+    private final AtomicLong synchronizedDocumentBytes = new AtomicLong();
+    private final AtomicBoolean documentSizeLimitScheduled = new AtomicBoolean();
+    /**
+     * Incremented by {@link #stopAsync()}: a start still launching the process when the language server is
+     * stopped sees a stale generation and stops the process it launched.
+     */
+    private final AtomicInteger startGeneration = new AtomicInteger();
+    /**
+     * Processes launched by a start which was stopped meanwhile, until they exit.
+     */
+    private final Set<ProcessHandle> processesStoppedWhileStarting = ConcurrentHashMap.newKeySet();
+    /**
+     * The launch of the language server process by the current start, which runs in the background.
+     */
+    private CompletableFuture<StreamConnectionProvider> processStartFuture;
+    private volatile ExecutorService listenerExecutor;
+    private final ExecutorService dispatchExecutor;
+    private final LanguageServerMetrics metrics;
+    private final LanguageServerSupervisor supervisor = new LanguageServerSupervisor();
+    /**
+     * True while a restart after a crash of the language server is scheduled.
+     */
+    private volatile boolean restartScheduled;
 
     /**
      * Map containing unregistration handlers for dynamic capability registrations.
@@ -134,11 +201,14 @@ public class LanguageServerWrapper {
                                   @Nullable URI initialPath) {
         this.initialProject = project;
         this.initialPath = initialPath;
-        this.allWatchedProjects = new HashSet<>();
+        this.allWatchedProjects = ConcurrentHashMap.newKeySet();
         this.serverDefinition = serverDefinition;
-        this.connectedDocuments = new HashMap<>();
+        this.connectedDocuments = new ConcurrentHashMap<>();
+        this.suspendedDocuments = ConcurrentHashMap.newKeySet();
         this.launcherFuture = null;
         this.initializeFuture = null;
+        this.dispatchExecutor = LanguageServerExecutors.createDispatchExecutor(serverDefinition.id);
+        this.metrics = new LanguageServerMetrics(serverDefinition.id);
     }
 
     public Project getProject() {
@@ -154,38 +224,82 @@ public class LanguageServerWrapper {
      * @throws IOException
      */
     public synchronized void start() throws IOException {
-        Map<URI, Document> filesToReconnect = new HashMap<>();
+        start(null);
+    }
+
+    /**
+     * Starts the language server, or restarts it if it's not active anymore or if a restart reason is given.
+     * The documents connected before a restart are opened again in the new language server, at their
+     * current version.
+     *
+     * @param restartReason the reason to restart the language server even if it's active, or null.
+     */
+    private synchronized void start(@Nullable String restartReason) {
+        Map<URI, DocumentContentSynchronizer> filesToReconnect = new HashMap<>();
         if (this.languageServer != null) { // already been started
-            if (isActive()) {
+            if (isActive() && restartReason == null) {
+                return;
+            } else if (restartScheduled && restartReason == null) {
+                // the supervisor restarts the language server after its backoff delay
                 return;
             } else {
-                for (Map.Entry<URI, DocumentContentSynchronizer> entry : this.connectedDocuments.entrySet()) {
-                    filesToReconnect.put(entry.getKey(), entry.getValue().getDocument());
-                }
+                filesToReconnect.putAll(this.connectedDocuments);
+                Set<URI> stillSuspended = Set.copyOf(this.suspendedDocuments);
+                metrics.onLifecycleEvent("Restarting: " + (restartReason != null ? restartReason : "the language server is not active")); //$NON-NLS-1$ //$NON-NLS-2$
                 stop();
+                // the suspended documents are connected again when they are focused, as before the restart
+                this.suspendedDocuments.addAll(stillSuspended);
             }
         }
         if (this.initializeFuture == null) {
-
-            ExecutorService executorService = Executors.newCachedThreadPool();
             final InitializeParams initParams = new InitializeParams();
 
             final URI rootURI = getRootURI();
-            this.initializeFuture = CompletableFuture.supplyAsync(() -> {
+            final int generation = startGeneration.get();
+            startCount.incrementAndGet();
+            supervisor.onStarted();
+            metrics.onLifecycleEvent("Starting"); //$NON-NLS-1$
+            // launching the process blocks, the dispatch executor is kept for the short tasks sent to the server
+            final CompletableFuture<StreamConnectionProvider> processStart = CompletableFuture.supplyAsync(() -> {
+                StreamConnectionProvider provider = serverDefinition.createConnectionProvider();
+                if (provider instanceof ProcessStreamConnectionProvider && initialProject != null
+                        && LibertyProjectSettings.getInstance(initialProject.getProject()).isSharedLanguageServerHost()) {
+                    // the host is shared by all the projects
+                    ((ProcessStreamConnectionProvider) provider).setSharedHostServerId(
+                            initialProject.getProject().getLocationHash() + '/' + serverDefinition.id);
+                }
+                if (provider instanceof ProcessStreamConnectionProvider && initialProject != null) {
+                    ((ProcessStreamConnectionProvider) provider).setWorkspaceProject(initialProject.getProject());
+                }
+                final StreamConnectionProvider startedProvider;
                 if (LoggingStreamConnectionProviderProxy.shouldLog(serverDefinition.id)) {
-                    this.lspStreamProvider = new LoggingStreamConnectionProviderProxy(
-                            serverDefinition.createConnectionProvider(), serverDefinition.id);
+                    startedProvider = new LoggingStreamConnectionProviderProxy(provider, serverDefinition.id);
                 } else {
-                    this.lspStreamProvider = serverDefinition.createConnectionProvider();
+                    startedProvider = provider;
                 }
-                initParams.setInitializationOptions(this.lspStreamProvider.getInitializationOptions(rootURI));
                 try {
-                    lspStreamProvider.start();
+                    startedProvider.start();
                 } catch (IOException e) {
                     throw new RuntimeException(e);
                 }
-                return null;
-            }).thenApply(unused -> {
+                synchronized (this) {
+                    if (generation != startGeneration.get()) {
+                        // stopped while the process was launched, nobody else knows about it
+                        stopWhileStarting(startedProvider);
+                        throw new CancellationException("Language server " + serverDefinition.id + " stopped while starting"); //$NON-NLS-1$ //$NON-NLS-2$
+                    }
+                    this.lspStreamProvider = startedProvider;
+                }
+                // the options depend on whether the language server was started in the shared host
+                initParams.setInitializationOptions(startedProvider.getInitializationOptions(rootURI));
+                CompletableFuture<?> exit = startedProvider.onExit();
+                if (exit != null) {
+                    exit.thenRun(() -> onProcessExit(startedProvider));
+                }
+                return startedProvider;
+            }, AppExecutorUtil.getAppExecutorService());
+            this.processStartFuture = processStart;
+            this.initializeFuture = processStart.thenApply(startedProvider -> {
                 LanguageClientImpl client = serverDefinition.createLanguageClient(initialProject.getProject());
                 initParams.setProcessId(getCurrentProcessId());
                 if (rootURI != null) {
@@ -195,6 +309,7 @@ public class LanguageServerWrapper {
                 UnaryOperator<MessageConsumer> wrapper =
                     consumer -> (message -> { 
                         try {
+                            metrics.onMessage(message, consumer);
                             logMessage(message);
                             consumer.consume(message);
                             final StreamConnectionProvider currentConnectionProvider = this.lspStreamProvider;
@@ -205,15 +320,24 @@ public class LanguageServerWrapper {
                             LOGGER.warn(e.getLocalizedMessage(), e);
                         }
                     });
-                Launcher<? extends LanguageServer> launcher = Launcher.createLauncher(client, serverDefinition.getServerInterface(),
-                        this.lspStreamProvider.getInputStream(), this.lspStreamProvider.getOutputStream(),
-                        executorService, wrapper);
-
-                this.languageServer = launcher.getRemoteProxy();
-                client.connect(languageServer, this);
-                this.launcherFuture = launcher.startListening();
-                return null;
-            }).thenCompose(unused -> {
+                synchronized (this) {
+                    if (generation != startGeneration.get()) {
+                        // the process was stopped with the language server
+                        throw new CancellationException("Language server " + serverDefinition.id + " stopped while starting"); //$NON-NLS-1$ //$NON-NLS-2$
+                    }
+                    // the reader of the previous connection holds its listener thread until its stream is closed
+                    this.listenerExecutor = LanguageServerExecutors.createListenerExecutor(serverDefinition.id);
+                    Launcher<? extends LanguageServer> launcher = Launcher.createLauncher(client, serverDefinition.getServerInterface(),
+                            startedProvider.getInputStream(), startedProvider.getOutputStream(),
+                            listenerExecutor, wrapper);
+
+                    this.languageServer = launcher.getRemoteProxy();
+                    this.languageClient = client;
+                    client.connect(languageServer, this);
+                    this.launcherFuture = launcher.startListening();
+                }
+                return startedProvider;
+            }).thenCompose(startedProvider -> {
 
                 WorkspaceClientCapabilities workspaceClientCapabilities = new WorkspaceClientCapabilities();
                 workspaceClientCapabilities.setApplyEdit(Boolean.TRUE);
@@ -274,9 +398,9 @@ public class LanguageServerWrapper {
                 textDocumentClientCapabilities
                         .setSynchronization(new SynchronizationCapabilities(Boolean.TRUE, Boolean.TRUE, Boolean.TRUE));
                 initParams.setCapabilities(
-                        new ClientCapabilities(workspaceClientCapabilities, textDocumentClientCapabilities, lspStreamProvider.getExperimentalFeaturesPOJO()));
+                        new ClientCapabilities(workspaceClientCapabilities, textDocumentClientCapabilities, startedProvider.getExperimentalFeaturesPOJO()));
                 initParams.setClientInfo(new ClientInfo(CLIENT_NAME));
-                initParams.setTrace(this.lspStreamProvider.getTrace(rootURI));
+                initParams.setTrace(startedProvider.getTrace(rootURI));
                 // no then...Async future here as we want this chain of operation to be sequential and "atomic"-ish
                 return languageServer.initialize(initParams);
             }).thenAccept(res -> {
@@ -284,25 +408,34 @@ public class LanguageServerWrapper {
                 this.initiallySupportsWorkspaceFolders = supportsWorkspaceFolders(serverCapabilities);
             }).thenRun(() -> {
                 this.languageServer.initialized(new InitializedParams());
+                metrics.onLifecycleEvent("Initialized"); //$NON-NLS-1$
             }).thenRun(() -> {
-                final Map<URI, Document> toReconnect = filesToReconnect;
+                final Map<URI, DocumentContentSynchronizer> toReconnect = filesToReconnect;
                 initializeFuture.thenRunAsync(() -> {
                     if (this.initialProject != null) {
                         watchProject(this.initialProject, true);
                     }
-                    for (Map.Entry<URI, Document> fileToReconnect : toReconnect.entrySet()) {
+                    for (Map.Entry<URI, DocumentContentSynchronizer> fileToReconnect : toReconnect.entrySet()) {
                         try {
-                            connect(fileToReconnect.getKey(), fileToReconnect.getValue());
+                            connect(fileToReconnect.getKey(), fileToReconnect.getValue().getDocument(),
+                                    fileToReconnect.getValue().getVersion());
                         } catch (IOException e) {
                             LOGGER.warn(e.getLocalizedMessage(), e);
                         }
                     }
-                });
+                }, dispatchExecutor);
             }).exceptionally(e -> {
-                LOGGER.warn(e.getLocalizedMessage(), e);
-                initializeFuture.completeExceptionally(e);
-                stop();
-                return null;
+                synchronized (this) {
+                    if (generation != startGeneration.get()) {
+                        // the language server was stopped, and possibly started again, meanwhile
+                        return null;
+                    }
+                    LOGGER.warn(e.getLocalizedMessage(), e);
+                    metrics.onLifecycleEvent("Failed: " + e.getLocalizedMessage()); //$NON-NLS-1$
+                    initializeFuture.completeExceptionally(e);
+                    stop();
+                    return null;
+                }
             });
             EditorFactory.getInstance().getEventMulticaster().addDocumentListener(fileBufferListener);
             messageBusConnection = ApplicationManager.getApplication().getMessageBus().connect();
@@ -310,6 +443,55 @@ public class LanguageServerWrapper {
         }
     }
 
+    /**
+     * Stops a language server process launched by a start which was stopped meanwhile, and keeps it
+     * until it exits, see {@link #getProcessesStoppedWhileStarting()}.
+     */
+    private void stopWhileStarting(StreamConnectionProvider provider) {
+        ProcessHandle process = provider.getProcessHandle();
+        // the shared host outlives the language servers it runs
+        if (process != null && !Objects.equals(process, SharedLanguageServerHost.getInstance().getProcessHandle())) {
+            processesStoppedWhileStarting.add(process);
+            process.onExit().thenRun(() -> processesStoppedWhileStarting.remove(process));
+        }
+        provider.stop();
+    }
+
+    /**
+     * Called when the language server exits, see {@link StreamConnectionProvider#onExit()}. Unless the language server was stopped on
+     * purpose, a restart is scheduled according to the {@link LanguageServerSupervisor}.
+     */
+    private synchronized void onProcessExit(StreamConnectionProvider provider) {
+        if (provider != this.lspStreamProvider || restartScheduled) {
+            // the language server was stopped or restarted meanwhile
+            return;
+        }
+        long delay = supervisor.onCrash();
+        if (delay < 0) {
+            LOGGER.warn("Language server " + serverDefinition.id + " crashed too often, it won't be restarted automatically"); //$NON-NLS-1$ //$NON-NLS-2$
+            metrics.onLifecycleEvent("Crashed: too many restarts, giving up"); //$NON-NLS-1$
+            stop();
+            return;
+        }
+        LOGGER.warn("Language server " + serverDefinition.id + " exited unexpectedly, restarting it in " + delay + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        metrics.onLifecycleEvent("Crashed: restarting in " + delay + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+        restartScheduled = true;
+        AppExecutorUtil.getAppScheduledExecutorService().schedule(() -> restartAfterCrash(provider), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void restartAfterCrash(StreamConnectionProvider provider) {
+        restartScheduled = false;
+        if (provider != this.lspStreamProvider) {
+            return;
+        }
+        if (this.connectedDocuments.isEmpty() && this.suspendedDocuments.isEmpty()) {
+            // nothing to restore, the language server is started again when a document is opened
+            stop();
+            return;
+        }
+        start("the language server process exited"); //$NON-NLS-1$
+    }
+
     @Nullable
     private URI getRootURI() {
         Module project = this.initialProject;
@@ -371,15 +553,31 @@ public class LanguageServerWrapper {
     /**
      * @return whether the language server initialization connection is still active
      */
-    private boolean isInitializing() {
+    public boolean isInitializing() {
         return (this.initializeFuture != null) && !this.initializeFuture.isDone();
     }
 
     synchronized void stop() {
+        stopAsync();
+    }
+
+    /**
+     * Stops the language server: documents are disconnected immediately, while the LSP shutdown and exit
+     * sequence and the termination of the process run in the background, the shutdown request waiting at
+     * most {@link #SHUTDOWN_TIMEOUT_MILLIS}.
+     *
+     * @return a future completed when the shutdown sequence is done, and the process launched by a start in
+     * flight is stopped. The processes may still be exiting, see {@link LanguageServerShutdownCoordinator}
+     * to wait for them.
+     */
+    synchronized CompletableFuture<Void> stopAsync() {
         final boolean alreadyStopping = this.stopping.getAndSet(true);
         if (alreadyStopping) {
-            return;
+            return stopFuture != null ? stopFuture : CompletableFuture.completedFuture(null);
         }
+        metrics.onLifecycleEvent("Stopping"); //$NON-NLS-1$
+        // a start still launching its process stops it instead of using it
+        startGeneration.incrementAndGet();
         if (this.initializeFuture != null) {
             this.initializeFuture.cancel(true);
             this.initializeFuture = null;
@@ -389,14 +587,17 @@ public class LanguageServerWrapper {
         this.dynamicRegistrations.clear();
 
         final Future<?> serverFuture = this.launcherFuture;
+        final ExecutorService listener = this.listenerExecutor;
         final StreamConnectionProvider provider = this.lspStreamProvider;
         final LanguageServer languageServerInstance = this.languageServer;
+        final CompletableFuture<StreamConnectionProvider> processStart = this.processStartFuture;
+        this.processStartFuture = null;
 
         Runnable shutdownKillAndStopFutureAndProvider = () -> {
             if (languageServerInstance != null) {
                 CompletableFuture<Object> shutdown = languageServerInstance.shutdown();
                 try {
-                    shutdown.get(5, TimeUnit.SECONDS);
+                    shutdown.get(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
                 } catch (InterruptedException ex) {
                     Thread.currentThread().interrupt();
                 } catch (Exception e) {
@@ -407,22 +608,34 @@ public class LanguageServerWrapper {
             if (serverFuture != null) {
                 serverFuture.cancel(true);
             }
+            metrics.clearPendingRequests();
 
-            if (languageServerInstance != null) {
+            // the exit notification would stop the shared host, with all its language servers
+            if (languageServerInstance != null && (provider == null || !provider.isHosted())) {
                 languageServerInstance.exit();
             }
 
             if (provider != null) {
                 provider.stop();
             }
-            this.stopping.set(false);
+            if (listener != null) {
+                listener.shutdown();
+            }
         };
 
-        CompletableFuture.runAsync(shutdownKillAndStopFutureAndProvider);
+        CompletableFuture<Void> future = CompletableFuture.runAsync(shutdownKillAndStopFutureAndProvider,
+                AppExecutorUtil.getAppExecutorService());
+        if (processStart != null && !processStart.isDone()) {
+            // the process being launched is stopped by the start itself, see getProcessesStoppedWhileStarting()
+            future = CompletableFuture.allOf(future, processStart.handle((startedProvider, error) -> null));
+        }
+        this.stopFuture = future;
 
         this.launcherFuture = null;
         this.lspStreamProvider = null;
 
+        // a stopped language server is not started again by focusing a suspended document
+        this.suspendedDocuments.clear();
         while (!this.connectedDocuments.isEmpty()) {
             disconnect(this.connectedDocuments.keySet().iterator().next());
         }
@@ -432,6 +645,9 @@ public class LanguageServerWrapper {
         if (messageBusConnection != null) {
             messageBusConnection.disconnect();
         }
+        // the state is reset, a following stop (e.g. of a restarted language server) is not skipped
+        this.stopping.set(false);
+        return future;
     }
 
     /**
@@ -472,6 +688,11 @@ public class LanguageServerWrapper {
         if (isInitializationRootProject && !this.allWatchedProjects.isEmpty()) {
             return; // there can be only one root project
         }
+        if (!isInitializationRootProject && isInitializing()) {
+            // the workspace folder capability is not known yet
+            initializeFuture.thenRunAsync(() -> watchProject(project, false), dispatchExecutor);
+            return;
+        }
         if (!isInitializationRootProject && !supportsWorkspaceFolderCapability()) {
             // multi project and WorkspaceFolder notifications not supported by this server
             // instance
@@ -528,23 +749,15 @@ public class LanguageServerWrapper {
     }
 
     /**
+     * Doesn't wait for the initialization of the language server, this is called while routing documents,
+     * possibly on the EDT. While the server starts, only {@link #initiallySupportsWorkspaceFolders} is known:
+     * {@link LanguageServiceAccessor} routes the documents of other modules again once it's initialized.
+     *
      * @return true, if the server supports multi-root workspaces via workspace
      *         folders
      * @since 0.6
      */
     private boolean supportsWorkspaceFolderCapability() {
-        if (this.initializeFuture != null) {
-            try {
-                this.initializeFuture.get(1, TimeUnit.SECONDS);
-            } catch (TimeoutException e) {
-                LOGGER.warn("Could not get if the workspace folder capability is supported due to timeout after 1 second", e); //$NON-NLS-1$
-            } catch (InterruptedException e) {
-                LOGGER.warn(e.getLocalizedMessage(), e);
-                Thread.currentThread().interrupt();
-            } catch (ExecutionException e) {
-                LOGGER.warn(e.getLocalizedMessage(), e);
-            }
-        }
         return initiallySupportsWorkspaceFolders || supportsWorkspaceFolders(serverCapabilities);
     }
 
@@ -555,6 +768,13 @@ public class LanguageServerWrapper {
      * @noreference internal so far
      */
     private CompletableFuture<LanguageServer> connect(@Nonnull URI absolutePath, Document document) throws IOException {
+        return connect(absolutePath, document, 0);
+    }
+
+    /**
+     * @param version the version of the document when it's opened again after a restart, 0 otherwise.
+     */
+    private CompletableFuture<LanguageServer> connect(@Nonnull URI absolutePath, Document document, int version) throws IOException {
         final URI thePath = absolutePath; // should be useless
 
         VirtualFile file = FileDocumentManager.getInstance().getFile(document);
@@ -592,25 +812,86 @@ public class LanguageServerWrapper {
                         syncKind = syncOptions.getLeft();
                     }
                 }
-                DocumentContentSynchronizer listener = new DocumentContentSynchronizer(this, theDocument, syncKind);
+                DocumentContentSynchronizer listener = new DocumentContentSynchronizer(this, theDocument, syncKind, version);
                 theDocument.addDocumentListener(listener);
                 LanguageServerWrapper.this.connectedDocuments.put(thePath, listener);
+                this.synchronizedDocumentBytes.addAndGet(listener.updateAccountedBytes());
+                this.suspendedDocuments.remove(thePath);
+                enforceDocumentSizeLimit(thePath);
                 return listener.didOpenFuture;
             }
-        }).thenApply(theVoid -> languageServer);
+        }, dispatchExecutor).thenApply(theVoid -> languageServer);
     }
 
     public void disconnect(URI path) {
+        this.suspendedDocuments.remove(path);
         DocumentContentSynchronizer documentListener = this.connectedDocuments.remove(path);
         if (documentListener != null) {
+            this.synchronizedDocumentBytes.addAndGet(-documentListener.clearAccountedBytes());
             documentListener.getDocument().removeDocumentListener(documentListener);
             documentListener.documentClosed();
         }
-        if (this.connectedDocuments.isEmpty()) {
+        if (this.connectedDocuments.isEmpty() && this.suspendedDocuments.isEmpty()) {
             stop();
         }
     }
 
+    /**
+     * Called when the editor of the given document gets the focus: a document closed on the server side
+     * to save memory is connected again.
+     *
+     * @param uri the URI of the focused document.
+     */
+    public void documentFocused(@Nonnull URI uri) {
+        DocumentContentSynchronizer documentListener = this.connectedDocuments.get(uri);
+        if (documentListener != null) {
+            documentListener.focused();
+        } else if (this.suspendedDocuments.contains(uri)) {
+            VirtualFile file = LSPIJUtils.findResourceFor(uri);
+            if (file == null) {
+                this.suspendedDocuments.remove(uri);
+                return;
+            }
+            try {
+                connect(uri, LSPIJUtils.getDocument(file));
+            } catch (IOException e) {
+                LOGGER.warn(e.getLocalizedMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Closes on the server side the least recently focused documents, until the size of the documents
+     * synchronized with the language server is under the limit of {@link LanguageServerSettings}.
+     * Must be called while synchronized on {@link #connectedDocuments}, on the dispatch executor.
+     *
+     * @param keep the document which is never closed, e.g. the one being connected.
+     */
+    private void enforceDocumentSizeLimit(@Nonnull URI keep) {
+        long limit = LanguageServerSettings.getInstance().getDocumentSizeLimitBytes();
+        if (limit <= 0) {
+            return;
+        }
+        while (this.synchronizedDocumentBytes.get() > limit) {
+            Map.Entry<URI, DocumentContentSynchronizer> oldest = null;
+            for (Map.Entry<URI, DocumentContentSynchronizer> entry : this.connectedDocuments.entrySet()) {
+                if (!entry.getKey().equals(keep) && (oldest == null
+                        || entry.getValue().getLastFocused() < oldest.getValue().getLastFocused())) {
+                    oldest = entry;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            DocumentContentSynchronizer documentListener = oldest.getValue();
+            this.connectedDocuments.remove(oldest.getKey());
+            this.synchronizedDocumentBytes.addAndGet(-documentListener.clearAccountedBytes());
+            this.suspendedDocuments.add(oldest.getKey());
+            documentListener.getDocument().removeDocumentListener(documentListener);
+            documentListener.documentClosed();
+        }
+    }
+
     public void disconnectContentType(@Nonnull Language language) {
         List<URI> pathsToDisconnect = new ArrayList<>();
         for (URI path : connectedDocuments.keySet()) {
@@ -633,14 +914,14 @@ public class LanguageServerWrapper {
      * @noreference test only
      */
     public boolean isConnectedTo(URI location) {
-        return connectedDocuments.containsKey(location);
+        return location != null && connectedDocuments.containsKey(location);
     }
 
     /**
      * Starts and returns the language server, regardless of if it is initialized.
      * If not in the UI Thread, will wait to return the initialized server.
      *
-     * @deprecated use {@link #getInitializedServer()} instead.
+     * @deprecated use {@link #getInitializedServer()} instead, which does not block.
      */
     @Deprecated
     @Nullable
@@ -686,7 +967,128 @@ public class LanguageServerWrapper {
     }
 
     /**
-     * Warning: this is a long running operation
+     * Returns the executor used to send notifications to the language server. Tasks submitted to this
+     * executor run one at a time, in submission order, so that document events reach the server in order.
+     *
+     * @return the dispatch executor of the language server.
+     */
+    public ExecutorService getDispatchExecutor() {
+        return dispatchExecutor;
+    }
+
+    /**
+     * @return the process running the language server, or <code>null</code> if it's not started.
+     */
+    @Nullable
+    public ProcessHandle getProcessHandle() {
+        final StreamConnectionProvider provider = this.lspStreamProvider;
+        return provider != null ? provider.getProcessHandle() : null;
+    }
+
+    /**
+     * @return the processes launched by starts which were stopped before using them, and which didn't
+     * exit yet.
+     */
+    @Nonnull
+    Set<ProcessHandle> getProcessesStoppedWhileStarting() {
+        return Set.copyOf(processesStoppedWhileStarting);
+    }
+
+    /**
+     * @return the number of times the language server was started, including restarts.
+     */
+    public int getStartCount() {
+        return startCount.get();
+    }
+
+    /**
+     * @return the number of documents connected to the language server.
+     */
+    public int getConnectedDocumentCount() {
+        return connectedDocuments.size();
+    }
+
+    /**
+     * @return the number of documents open in an editor but closed on the server side to save memory.
+     */
+    public int getSuspendedDocumentCount() {
+        return suspendedDocuments.size();
+    }
+
+    /**
+     * @return the size of the text of the documents synchronized with the language server, which is held
+     * both in the IDE and in the language server process.
+     */
+    public long getSynchronizedDocumentBytes() {
+        return synchronizedDocumentBytes.get();
+    }
+
+    /**
+     * @return the number of callbacks of the language server which are running or waiting to run
+     * on the background executor.
+     */
+    public int getPendingBackgroundTasks() {
+        final LanguageClientImpl client = this.languageClient;
+        return client != null ? client.getPendingBackgroundTasks() : 0;
+    }
+
+    /**
+     * Returns the metrics of the messages exchanged with the language server. The metrics are kept
+     * when the language server is restarted.
+     *
+     * @return the metrics of the language server.
+     */
+    @Nonnull
+    public LanguageServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Starts the language server and returns a CompletableFuture completed with the server
+     * capabilities once the server is initialized.
+     *
+     * @return the server capabilities future
+     */
+    @Nonnull
+    public CompletableFuture<ServerCapabilities> getServerCapabilitiesAsync() {
+        return getInitializedServer().thenApply(server -> this.serverCapabilities);
+    }
+
+    /**
+     * Returns the server capabilities without waiting for the initialization of the language server.
+     *
+     * @return the server capabilities, or null if the server is not initialized yet
+     */
+    @Nullable
+    public ServerCapabilities getServerCapabilitiesIfInitialized() {
+        return this.serverCapabilities;
+    }
+
+    /**
+     * Returns the language server without starting it or waiting for its initialization.
+     *
+     * @return the language server, or null if it's not started or still initializing
+     */
+    @Nullable
+    public LanguageServer getServerIfInitialized() {
+        CompletableFuture<Void> future = this.initializeFuture;
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        return this.languageServer;
+    }
+
+    /**
+     * @param server a language server proxy
+     * @return true if the given proxy is the one of the language server currently started by this wrapper
+     */
+    public boolean isWrapperFor(@Nullable LanguageServer server) {
+        return server != null && server == this.languageServer;
+    }
+
+    /**
+     * Warning: this is a long running operation, prefer {@link #getServerCapabilitiesAsync()}
+     * or {@link #getServerCapabilitiesIfInitialized()}
      *
      * @return the server capabilities, or null if initialization job didn't
      *         complete
@@ -803,7 +1205,8 @@ public class LanguageServerWrapper {
     }
 
     synchronized void registerCommands(List<String> newCommands) {
-        ServerCapabilities caps = this.getServerCapabilities();
+        // registrations are handled once the server is initialized
+        ServerCapabilities caps = this.serverCapabilities;
         if (caps != null) {
             ExecuteCommandOptions commandProvider = caps.getExecuteCommandProvider();
             if (commandProvider == null) {
@@ -835,7 +1238,7 @@ public class LanguageServerWrapper {
     }
 
     void unregisterCommands(List<String> cmds) {
-        ServerCapabilities caps = this.getServerCapabilities();
+        ServerCapabilities caps = this.serverCapabilities;
         if (caps != null) {
             ExecuteCommandOptions commandProvider = caps.getExecuteCommandProvider();
             if (commandProvider != null) {
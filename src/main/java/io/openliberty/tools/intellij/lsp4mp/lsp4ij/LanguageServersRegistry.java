@@ -4,6 +4,7 @@ import com.intellij.lang.Language;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.vfs.VirtualFile;
 import io.openliberty.tools.intellij.lsp4mp.lsp4ij.server.StreamConnectionProvider;
 import org.eclipse.lsp4j.jsonrpc.validation.NonNull;
@@ -18,12 +19,14 @@ import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public class LanguageServersRegistry {
@@ -35,6 +38,7 @@ public class LanguageServersRegistry {
         public final boolean isSingleton;
         public final @Nonnull Map<Language, String> languageIdMappings;
         public final Map<Language, String> languageFilePatternMappings;
+        private final Map<Language, PathMatcher> languageFilePatternMatchers;
 
         public LanguageServerDefinition(@Nonnull String id, @Nonnull String label, boolean isSingleton) {
             this.id = id;
@@ -42,15 +46,27 @@ public class LanguageServersRegistry {
             this.isSingleton = isSingleton;
             this.languageIdMappings = new ConcurrentHashMap<>();
             this.languageFilePatternMappings = new ConcurrentHashMap<>();
+            this.languageFilePatternMatchers = new ConcurrentHashMap<>();
         }
 
         public void registerAssociation(@Nonnull Language language, @Nonnull String languageId, String filePattern) {
             this.languageIdMappings.put(language, languageId);
             if (filePattern != null) {
                 this.languageFilePatternMappings.put(language, filePattern);
+                this.languageFilePatternMatchers.put(language, FileSystems.getDefault().getPathMatcher("glob:" + filePattern));
             }
         }
 
+        /**
+         * @param language the language of the file
+         * @param path the path of the file
+         * @return true if no file pattern is registered for the given language, or if the path matches it
+         */
+        public boolean matchesFilePattern(@Nonnull Language language, @Nonnull Path path) {
+            PathMatcher matcher = languageFilePatternMatchers.get(language);
+            return matcher == null || matcher.matches(path);
+        }
+
         public abstract StreamConnectionProvider createConnectionProvider();
 
         public LanguageClientImpl createLanguageClient(Project project) {
@@ -118,7 +134,11 @@ public class LanguageServersRegistry {
         return INSTANCE;
     }
 
+    private static final Key<AvailableServers> AVAILABLE_SERVERS_KEY = Key.create("open-liberty.intellij.availableLanguageServers");
+
     private List<ContentTypeToLanguageServerDefinition> connections = new ArrayList<>();
+    private final Map<Language, List<ContentTypeToLanguageServerDefinition>> providersByLanguage = new ConcurrentHashMap<>();
+    private final AtomicInteger modificationCount = new AtomicInteger();
 
     private LanguageServersRegistry() {
         initialize();
@@ -159,9 +179,9 @@ public class LanguageServersRegistry {
      * This does <strong>not</strong> include the one that match transitively as per content-type hierarchy
      */
     List<ContentTypeToLanguageServerDefinition> findProviderFor(final @NonNull Language contentType) {
-        return connections.stream()
-                .filter(entry -> contentType.isKindOf(entry.getKey()))
-                .collect(Collectors.toList());
+        return providersByLanguage.computeIfAbsent(contentType, language -> Collections.unmodifiableList(connections.stream()
+                .filter(entry -> language.isKindOf(entry.getKey()))
+                .collect(Collectors.toList())));
     }
 
 
@@ -172,6 +192,8 @@ public class LanguageServersRegistry {
         }
 
         connections.add(new ContentTypeToLanguageServerDefinition(language, serverDefinition));
+        providersByLanguage.clear();
+        modificationCount.incrementAndGet();
     }
 
     public List<ContentTypeToLanguageServerDefinition> getContentTypeToLSPExtensions() {
@@ -226,34 +248,70 @@ public class LanguageServersRegistry {
         return getAvailableLSFor(document, project).contains(serverDefinition);
     }
 
-    private Set<LanguageServerDefinition> getAvailableLSFor(Document document, Project project) {
+    /**
+     * @param document
+     * @param project
+     * @return the server definitions suitable for the given document
+     */
+    @Nonnull
+    Set<LanguageServerDefinition> getAvailableLSFor(Document document, Project project) {
         VirtualFile file = FileDocumentManager.getInstance().getFile(document);
-        return getAvailableLSFor(file, project);
+        return file != null ? getAvailableLSFor(file, project) : Collections.emptySet();
     }
 
-    private Set<LanguageServerDefinition> getAvailableLSFor(VirtualFile file, Project project) {
+    /**
+     * Returns the server definitions suitable for the given file. The result is cached on the file and
+     * computed again only when the file language, the file path or the registered associations change.
+     *
+     * @param file
+     * @param project
+     * @return the server definitions suitable for the given file
+     */
+    @Nonnull
+    Set<LanguageServerDefinition> getAvailableLSFor(VirtualFile file, Project project) {
         Language language = LSPIJUtils.getFileLanguage(file, project);
+        String path = file.getPath();
+        int stamp = modificationCount.get();
+        AvailableServers cached = file.getUserData(AVAILABLE_SERVERS_KEY);
+        if (cached != null && cached.isValid(language, path, stamp)) {
+            return cached.definitions;
+        }
         Set<LanguageServerDefinition> res = new HashSet<>();
         if (language != null) {
-            for (ContentTypeToLanguageServerDefinition mapping : this.connections) {
-                if (language.isKindOf(mapping.getKey())) {
-                    LanguageServerDefinition lsDef = mapping.getValue();
-                    if (!lsDef.languageFilePatternMappings.isEmpty() && lsDef.languageFilePatternMappings.containsKey(language)) {
-                        // check if document matches file pattern
-                        Path path = Paths.get(file.getPath());
-                        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + lsDef.languageFilePatternMappings.get(language));
-                        if (matcher.matches(path)) {
-                            LOGGER.trace("Available language server: " + mapping.getValue().id + " for file: " + file);
-                            res.add(mapping.getValue());
-                        }
-                    } else {
-                        LOGGER.trace("Available language server: " + mapping.getValue().id + " for file: " + file);
-                        res.add(mapping.getValue());
-                    }
+            Path filePath = Paths.get(path);
+            for (ContentTypeToLanguageServerDefinition mapping : findProviderFor(language)) {
+                LanguageServerDefinition lsDef = mapping.getValue();
+                if (lsDef.matchesFilePattern(language, filePath)) {
+                    LOGGER.trace("Available language server: " + lsDef.id + " for file: " + file);
+                    res.add(lsDef);
                 }
             }
         }
-        return res;
+        Set<LanguageServerDefinition> definitions = Collections.unmodifiableSet(res);
+        file.putUserData(AVAILABLE_SERVERS_KEY, new AvailableServers(language, path, stamp, definitions));
+        return definitions;
     }
-}
 
+    /**
+     * internal class to cache the server definitions available for a file
+     */
+    private static class AvailableServers {
+
+        @Nullable private final Language language;
+        @Nonnull private final String path;
+        private final int modificationCount;
+        @Nonnull private final Set<LanguageServerDefinition> definitions;
+
+        private AvailableServers(@Nullable Language language, @Nonnull String path, int modificationCount,
+                                 @Nonnull Set<LanguageServerDefinition> definitions) {
+            this.language = language;
+            this.path = path;
+            this.modificationCount = modificationCount;
+            this.definitions = definitions;
+        }
+
+        private boolean isValid(@Nullable Language language, @Nonnull String path, int modificationCount) {
+            return this.language == language && this.path.equals(path) && this.modificationCount == modificationCount;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package io.openliberty.tools.intellij.lsp4mp.lsp4ij;
 
 import com.intellij.lang.Language;
 import com.intellij.lang.LanguageUtil;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.module.Module;
@@ -18,13 +19,11 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.net.URI;
-import java.nio.file.FileSystems;
-import java.nio.file.Path;
-import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -34,7 +33,7 @@ import java.util.stream.Collectors;
  * {@link LanguageServerWrapper}.
  *
  */
-public class LanguageServiceAccessor {
+public class LanguageServiceAccessor implements Disposable {
     private static final Logger LOGGER = LoggerFactory.getLogger(LanguageServiceAccessor.class);
     private final Project project;
 
@@ -46,20 +45,56 @@ public class LanguageServiceAccessor {
         this.project = project;
     }
 
-    private Set<LanguageServerWrapper> startedServers = new HashSet<>();
+    /**
+     * Started wrappers. Reads iterate over a snapshot and never block, while the creation and removal
+     * of wrappers is serialized with {@link #startedServersLock}.
+     */
+    private final Set<LanguageServerWrapper> startedServers = new CopyOnWriteArraySet<>();
+    private final Object startedServersLock = new Object();
     private Map<StreamConnectionProvider, LanguageServersRegistry.LanguageServerDefinition> providersToLSDefinitions = new HashMap<>();
 
+    /**
+     * Documents waiting for the initialization of a language server to be routed, see
+     * {@link #routeAfterInitialization(LanguageServerWrapper, Document)}.
+     */
+    private final Set<URI> pendingRoutes = ConcurrentHashMap.newKeySet();
+
     /**
      * This is meant for test code to clear state that might have leaked from other
      * tests. It isn't meant to be used in production code.
      */
     public void clearStartedServers() {
-        synchronized (startedServers) {
-            startedServers.forEach(LanguageServerWrapper::stop);
+        synchronized (startedServersLock) {
+            LanguageServerShutdownCoordinator.shutdown(startedServers);
             startedServers.clear();
         }
     }
 
+    /**
+     * Stops the language servers of the project when it's closed, in parallel and within the
+     * shutdown deadline of {@link LanguageServerShutdownCoordinator}. The project is usually closed on
+     * the EDT, so the servers are stopped in the background.
+     */
+    @Override
+    public void dispose() {
+        List<LanguageServerWrapper> wrappers;
+        synchronized (startedServersLock) {
+            wrappers = List.copyOf(startedServers);
+            startedServers.clear();
+        }
+        LanguageServerShutdownCoordinator.shutdownAsync(wrappers);
+    }
+
+
+    /**
+     * Returns the language server wrappers started for the project, without starting any.
+     *
+     * @return an unmodifiable snapshot of the started wrappers.
+     */
+    @Nonnull
+    public List<LanguageServerWrapper> getStartedWrappers() {
+        return List.copyOf(startedServers);
+    }
 
     /**
      * A bean storing association of a Document/File with a language server.
@@ -95,25 +130,6 @@ public class LanguageServiceAccessor {
             return this.fileUri;
         }
 
-        /**
-         * Returns the language server, regardless of if it is initialized.
-         *
-         * @deprecated use {@link #getInitializedLanguageClient()} instead.
-         */
-        @Deprecated
-        public LanguageServer getLanguageClient() {
-            try {
-                return this.wrapper.getInitializedServer().get();
-            } catch (ExecutionException e) {
-                LOGGER.warn(e.getLocalizedMessage(), e);
-                return this.wrapper.getServer();
-            } catch (InterruptedException e) {
-                LOGGER.warn(e.getLocalizedMessage(), e);
-                Thread.currentThread().interrupt();
-                return this.wrapper.getServer();
-            }
-        }
-
         public int getVersion() {
             return wrapper.getVersion(LSPIJUtils.getFile(document));
         }
@@ -122,9 +138,17 @@ public class LanguageServiceAccessor {
             return this.wrapper.getInitializedServer();
         }
 
+        /**
+         * @return the capabilities of the language server, or null while it is initializing,
+         * see {@link #getCapabilitiesAsync()}.
+         */
         public @Nullable
         ServerCapabilities getCapabilites() {
-            return this.wrapper.getServerCapabilities();
+            return this.wrapper.getServerCapabilitiesIfInitialized();
+        }
+
+        public CompletableFuture<ServerCapabilities> getCapabilitiesAsync() {
+            return this.wrapper.getServerCapabilitiesAsync();
         }
 
         public boolean isActive() {
@@ -136,17 +160,15 @@ public class LanguageServiceAccessor {
     public @Nonnull
     List<CompletableFuture<LanguageServer>> getInitializedLanguageServers(@Nonnull VirtualFile file,
                                                                           @Nullable Predicate<ServerCapabilities> request) throws IOException {
-        synchronized (startedServers) {
-            Collection<LanguageServerWrapper> wrappers = getLSWrappers(file, request);
-            return wrappers.stream().map(wrapper -> wrapper.getInitializedServer().thenApplyAsync(server -> {
-                try {
-                    wrapper.connect(file, null);
-                } catch (IOException e) {
-                    LOGGER.warn(e.getLocalizedMessage(), e);
-                }
-                return server;
-            })).collect(Collectors.toList());
-        }
+        Collection<LanguageServerWrapper> wrappers = getLSWrappers(file, request);
+        return wrappers.stream().map(wrapper -> wrapper.getInitializedServer().thenApplyAsync(server -> {
+            try {
+                wrapper.connect(file, null);
+            } catch (IOException e) {
+                LOGGER.warn(e.getLocalizedMessage(), e);
+            }
+            return server;
+        })).collect(Collectors.toList());
     }
 
     public void disableLanguageServerContentType(
@@ -189,43 +211,16 @@ public class LanguageServiceAccessor {
      * @param file
      * @param lsDefinition
      * @param capabilitiesPredicate a predicate to check capabilities
-     * @return a LanguageServer for the given file, which is defined with provided server ID and conforms to specified request
-     * @deprecated use {@link #getInitializedLanguageServer(IFile, LanguageServerDefinition, Predicate)} instead.
-     */
-    @Deprecated
-    public LanguageServer getLanguageServer(@Nonnull VirtualFile file, @Nonnull LanguageServersRegistry.LanguageServerDefinition lsDefinition,
-                                                   Predicate<ServerCapabilities> capabilitiesPredicate)
-            throws IOException {
-        LanguageServerWrapper wrapper = getLSWrapperForConnection(LSPIJUtils.getProject(file), lsDefinition, LSPIJUtils.toUri(file));
-        if (capabilitiesPredicate == null
-                || wrapper.getServerCapabilities() == null /* null check is workaround for https://github.com/TypeFox/ls-api/issues/47 */
-                || capabilitiesPredicate.test(wrapper.getServerCapabilities())) {
-            wrapper.connect(file, null);
-            return wrapper.getServer();
-        }
-        return null;
-    }
-
-    /**
-     * Get the requested language server instance for the given file. Starts the language server if not already started.
-     *
-     * @param file
-     * @param lsDefinition
-     * @param capabilitiesPredicate a predicate to check capabilities
-     * @return a LanguageServer for the given file, which is defined with provided server ID and conforms to specified request
+     * @return a LanguageServer for the given file, which is defined with provided server ID and conforms to specified request.
+     *         If the capabilities don't comply, {@code null} is returned, or the future completes with {@code null}
+     *         when the server is still initializing.
      */
     public CompletableFuture<LanguageServer> getInitializedLanguageServer(@Nonnull VirtualFile file,
                                                                                  @Nonnull LanguageServersRegistry.LanguageServerDefinition lsDefinition,
                                                                                  Predicate<ServerCapabilities> capabilitiesPredicate)
             throws IOException {
         LanguageServerWrapper wrapper = getLSWrapperForConnection(LSPIJUtils.getProject(file), lsDefinition, LSPIJUtils.toUri(file));
-        if (capabilitiesPredicate == null
-                || wrapper.getServerCapabilities() == null /* null check is workaround for https://github.com/TypeFox/ls-api/issues/47 */
-                || capabilitiesPredicate.test(wrapper.getServerCapabilities())) {
-            wrapper.connect(file, null);
-            return wrapper.getInitializedServer();
-        }
-        return null;
+        return getInitializedLanguageServer(wrapper, capabilitiesPredicate, () -> wrapper.connect(file, null));
     }
 
     /**
@@ -239,7 +234,8 @@ public class LanguageServiceAccessor {
      * @return a LanguageServer for the given file, which is defined with provided
      *         server ID and conforms to specified request. If
      *         {@code capabilitesPredicate} does not test positive for the server's
-     *         capabilities, {@code null} is returned.
+     *         capabilities, {@code null} is returned, or the future completes with
+     *         {@code null} when the server is still initializing.
      */
     public CompletableFuture<LanguageServer> getInitializedLanguageServer(Document document,
             LanguageServersRegistry.LanguageServerDefinition lsDefinition,
@@ -247,11 +243,43 @@ public class LanguageServiceAccessor {
             throws IOException {
         URI initialPath = LSPIJUtils.toUri(document);
         LanguageServerWrapper wrapper = getLSWrapperForConnection(document, lsDefinition, initialPath);
-        if (capabilitiesComply(wrapper, capabilitiesPredicate)) {
-            wrapper.connect(document);
-            return wrapper.getInitializedServer();
+        return getInitializedLanguageServer(wrapper, capabilitiesPredicate, () -> wrapper.connect(document));
+    }
+
+    /**
+     * Connects the file with the given {@code wrapper} if its capabilities comply with the given
+     * {@code capabilitiesPredicate}. When the server is still initializing, the capabilities are tested
+     * once they are known, without blocking the caller.
+     *
+     * @return the initialized language server, {@code null} if the capabilities of an initialized server don't comply,
+     *         or a future completed with {@code null} if the capabilities of an initializing server don't comply
+     */
+    private static @Nullable CompletableFuture<LanguageServer> getInitializedLanguageServer(LanguageServerWrapper wrapper,
+                                                                                           Predicate<ServerCapabilities> capabilitiesPredicate,
+                                                                                           Connection connection) throws IOException {
+        if (wrapper.getServerCapabilitiesIfInitialized() != null) {
+            if (capabilitiesComply(wrapper, capabilitiesPredicate)) {
+                connection.connect();
+                return wrapper.getInitializedServer();
+            }
+            return null;
         }
-        return null;
+        return wrapper.getServerCapabilitiesAsync().thenComposeAsync(capabilities -> {
+            if (capabilitiesComply(wrapper, capabilitiesPredicate)) {
+                try {
+                    connection.connect();
+                } catch (IOException e) {
+                    LOGGER.warn(e.getLocalizedMessage(), e);
+                }
+                return wrapper.getInitializedServer();
+            }
+            return CompletableFuture.completedFuture(null);
+        }, wrapper.getDispatchExecutor());
+    }
+
+    @FunctionalInterface
+    private interface Connection {
+        void connect() throws IOException;
     }
 
     /**
@@ -264,15 +292,16 @@ public class LanguageServiceAccessor {
      * @param capabilitiesPredicate
      *            predicate testing the capabilities of {@code wrapper}.
      * @return The result of applying the capabilities of {@code wrapper} to
-     *         {@code capabilitiesPredicate}, or {@code false} if
-     *         {@code capabilitiesPredicate == null} or
-     *         {@code wrapper.getServerCapabilities() == null}
+     *         {@code capabilitiesPredicate}, or {@code true} if
+     *         {@code capabilitiesPredicate == null} or if the server is not
+     *         initialized yet. This method never waits for the server initialization.
      */
     private static boolean capabilitiesComply(LanguageServerWrapper wrapper,
                                               Predicate<ServerCapabilities> capabilitiesPredicate) {
+        ServerCapabilities capabilities = wrapper.getServerCapabilitiesIfInitialized();
         return capabilitiesPredicate == null
-                || wrapper.getServerCapabilities() == null /* null check is workaround for https://github.com/TypeFox/ls-api/issues/47 */
-                || capabilitiesPredicate.test(wrapper.getServerCapabilities());
+                || capabilities == null /* null check is workaround for https://github.com/TypeFox/ls-api/issues/47 */
+                || capabilitiesPredicate.test(capabilities);
     }
 
 
@@ -313,9 +342,7 @@ public class LanguageServiceAccessor {
             for (ContentTypeToLanguageServerDefinition mapping : LanguageServersRegistry.getInstance().findProviderFor(contentType)) {
                 if (mapping != null && mapping.getValue() != null && mapping.isEnabled()) {
                     LanguageServerWrapper wrapper = getLSWrapperForConnection(project, mapping.getValue(), LSPIJUtils.toUri(file));
-                    if (request == null
-                            || wrapper.getServerCapabilities() == null /* null check is workaround for https://github.com/TypeFox/ls-api/issues/47 */
-                            || request.test(wrapper.getServerCapabilities())) {
+                    if (capabilitiesComply(wrapper, request)) {
                         res.add(wrapper);
                     }
                 }
@@ -339,64 +366,98 @@ public class LanguageServiceAccessor {
         Set<Language> processedContentTypes = new HashSet<>();
         contentTypes.add(LSPIJUtils.getDocumentLanguage(document, project));
 
-        synchronized (startedServers) {
-            // already started compatible servers that fit request
-            res.addAll(startedServers.stream()
-                    .filter(wrapper -> {
-                        try {
-                            return wrapper.isConnectedTo(path) || LanguageServersRegistry.getInstance().matches(document, wrapper.serverDefinition, project);
-                        } catch (Exception e) {
-                            LOGGER.warn(e.getLocalizedMessage(), e);
-                            return false;
-                        }
-                    })
-                    .filter(wrapper -> wrapper.canOperate(document))
-                    .collect(Collectors.toList()));
-            while (!contentTypes.isEmpty()) {
-                Language contentType = contentTypes.poll();
-                if (contentType == null || processedContentTypes.contains(contentType)) {
+        Set<LanguageServersRegistry.LanguageServerDefinition> availableDefinitions;
+        try {
+            availableDefinitions = LanguageServersRegistry.getInstance().getAvailableLSFor(document, project);
+        } catch (Exception e) {
+            LOGGER.warn(e.getLocalizedMessage(), e);
+            availableDefinitions = Collections.emptySet();
+        }
+        final Set<LanguageServersRegistry.LanguageServerDefinition> matchingDefinitions = availableDefinitions;
+
+        // already started compatible servers that fit request
+        res.addAll(startedServers.stream()
+                .filter(wrapper -> wrapper.isConnectedTo(path) || matchingDefinitions.contains(wrapper.serverDefinition))
+                .filter(wrapper -> wrapper.canOperate(document))
+                .collect(Collectors.toList()));
+
+        while (!contentTypes.isEmpty()) {
+            Language contentType = contentTypes.poll();
+            if (contentType == null || processedContentTypes.contains(contentType)) {
+                continue;
+            }
+            for (ContentTypeToLanguageServerDefinition mapping : LanguageServersRegistry.getInstance()
+                    .findProviderFor(contentType)) {
+                if (mapping == null || !mapping.isEnabled()) {
+                    continue;
+                }
+                LanguageServersRegistry.LanguageServerDefinition serverDefinition = mapping.getValue();
+                if (serverDefinition == null) {
                     continue;
                 }
-                for (ContentTypeToLanguageServerDefinition mapping : LanguageServersRegistry.getInstance()
-                        .findProviderFor(contentType)) {
-                    if (mapping == null || !mapping.isEnabled()) {
-                        continue;
-                    }
-                    LanguageServersRegistry.LanguageServerDefinition serverDefinition = mapping.getValue();
-                    if (serverDefinition == null) {
-                        continue;
-                    }
 
-                    if (startedServers.stream().anyMatch(wrapper -> wrapper.serverDefinition.equals(serverDefinition)
-                            && wrapper.canOperate(document))) {
-                        // we already checked a compatible LS with this definition
+                Optional<LanguageServerWrapper> startedWrapper = findStartedWrapper(serverDefinition, document);
+                if (startedWrapper.isPresent()) {
+                    // we already checked a compatible LS with this definition
+                    if (matchingDefinitions.contains(serverDefinition)) {
+                        res.add(startedWrapper.get());
+                    }
+                    continue;
+                }
+                final Module fileProject = file != null ? LSPIJUtils.getProject(file) : null;
+                // only start language server if the language and file pattern (if any) match the language server definition
+                if (fileProject != null && serverDefinition.matchesFilePattern(contentType, Paths.get(file.getPath()))) {
+                    Optional<LanguageServerWrapper> initializingWrapper = findInitializingWrapper(serverDefinition);
+                    if (initializingWrapper.isPresent()) {
+                        // the language server may support workspace folders and serve the document once initialized
+                        routeAfterInitialization(initializingWrapper.get(), document);
                         continue;
                     }
-                    final Module fileProject = file != null ? LSPIJUtils.getProject(file) : null;
-                    if (fileProject != null) {
-                        boolean patternMappingsEmpty = serverDefinition.languageFilePatternMappings.isEmpty();
-                        if (!patternMappingsEmpty && serverDefinition.languageFilePatternMappings.containsKey(contentType)) {
-                            // check if document matches file pattern
-                            Path filePath = Paths.get(file.getPath());
-                            final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + serverDefinition.languageFilePatternMappings.get(contentType));
-                            if (matcher.matches(filePath)) {
-                                // only start language server if the language and file pattern matches the language server definition
-                                LanguageServerWrapper wrapper = new LanguageServerWrapper(fileProject, serverDefinition);
-                                startedServers.add(wrapper);
-                                res.add(wrapper);
-                            }
-                        } else if (patternMappingsEmpty || !serverDefinition.languageFilePatternMappings.containsKey(contentType)) {
-                            // no file patterns to filter language servers on, or none applicable for this language
-                            LanguageServerWrapper wrapper = new LanguageServerWrapper(fileProject, serverDefinition);
+                    synchronized (startedServersLock) {
+                        // another thread may have started the language server since the lookup above
+                        LanguageServerWrapper wrapper = findStartedWrapper(serverDefinition, document).orElse(null);
+                        if (wrapper == null) {
+                            wrapper = new LanguageServerWrapper(fileProject, serverDefinition);
                             startedServers.add(wrapper);
-                            res.add(wrapper);
                         }
+                        res.add(wrapper);
                     }
                 }
-                processedContentTypes.add(contentType);
             }
-            return res;
+            processedContentTypes.add(contentType);
         }
+        return res;
+    }
+
+    private Optional<LanguageServerWrapper> findStartedWrapper(LanguageServersRegistry.LanguageServerDefinition serverDefinition,
+                                                               Document document) {
+        return startedServers.stream()
+                .filter(wrapper -> wrapper.serverDefinition.equals(serverDefinition) && wrapper.canOperate(document))
+                .findFirst();
+    }
+
+    private Optional<LanguageServerWrapper> findInitializingWrapper(LanguageServersRegistry.LanguageServerDefinition serverDefinition) {
+        return startedServers.stream()
+                .filter(wrapper -> wrapper.serverDefinition.equals(serverDefinition) && wrapper.isInitializing())
+                .findFirst();
+    }
+
+    /**
+     * Connects the given document to its language servers once the given language server is initialized,
+     * when it is known whether it supports workspace folders, instead of starting another instance of the
+     * language server for the module of the document.
+     */
+    private void routeAfterInitialization(LanguageServerWrapper wrapper, Document document) {
+        URI uri = LSPIJUtils.toUri(document);
+        if (uri == null || !pendingRoutes.add(uri)) {
+            return;
+        }
+        wrapper.getServerCapabilitiesAsync().whenCompleteAsync((capabilities, error) -> {
+            pendingRoutes.remove(uri);
+            if (!project.isDisposed()) {
+                getLanguageServers(document, null);
+            }
+        }, wrapper.getDispatchExecutor());
     }
 
     /**
@@ -423,7 +484,7 @@ public class LanguageServiceAccessor {
                                                                    @Nonnull LanguageServersRegistry.LanguageServerDefinition serverDefinition, @Nullable URI initialPath) throws IOException {
         LanguageServerWrapper wrapper = null;
 
-        synchronized (startedServers) {
+        synchronized (startedServersLock) {
             for (LanguageServerWrapper startedWrapper : getStartedLSWrappers(project)) {
                 if (startedWrapper.serverDefinition.equals(serverDefinition)) {
                     wrapper = startedWrapper;
@@ -441,10 +502,36 @@ public class LanguageServiceAccessor {
         return wrapper;
     }
 
+    /**
+     * Starts the given language server for the given module, before any document is connected to it,
+     * so that the first request doesn't wait for the language server to start. Documents of the module
+     * opened later use the same language server.
+     *
+     * @param module the module.
+     * @param serverDefinition the language server to start.
+     * @return the started or already running language server wrapper.
+     * @throws IOException if the language server can't be started.
+     */
+    @Nonnull
+    public LanguageServerWrapper prestartLanguageServer(@Nonnull Module module,
+                                                        @Nonnull LanguageServersRegistry.LanguageServerDefinition serverDefinition) throws IOException {
+        synchronized (startedServersLock) {
+            for (LanguageServerWrapper startedWrapper : startedServers) {
+                if (startedWrapper.serverDefinition.equals(serverDefinition) && startedWrapper.canOperate(module)) {
+                    return startedWrapper;
+                }
+            }
+            LanguageServerWrapper wrapper = new LanguageServerWrapper(module, serverDefinition);
+            wrapper.start();
+            startedServers.add(wrapper);
+            return wrapper;
+        }
+    }
+
     private LanguageServerWrapper getLSWrapperForConnection(Document document,
                                                                    LanguageServersRegistry.LanguageServerDefinition serverDefinition, URI initialPath) throws IOException {
         LanguageServerWrapper wrapper = null;
-        synchronized (startedServers) {
+        synchronized (startedServersLock) {
             for (LanguageServerWrapper startedWrapper : getStartedLSWrappers(document)) {
                 if (startedWrapper.serverDefinition.equals(serverDefinition)) {
                     wrapper = startedWrapper;
@@ -490,18 +577,17 @@ public class LanguageServiceAccessor {
      */
     public Collection<LanguageServerWrapper> getMatchingStartedWrappers(@Nonnull VirtualFile file,
                                                                                 @Nullable Predicate<ServerCapabilities> request) {
-        synchronized (startedServers) {
-            return startedServers.stream().filter(wrapper -> wrapper.isConnectedTo(LSPIJUtils.toUri(file))
-                    || (LanguageServersRegistry.getInstance().matches(file, wrapper.serverDefinition, project)
-                    && wrapper.canOperate(LSPIJUtils.getProject(file)))).filter(wrapper -> request == null
-                    || (wrapper.getServerCapabilities() == null || request.test(wrapper.getServerCapabilities())))
-                    .collect(Collectors.toList());
-        }
+        URI fileUri = LSPIJUtils.toUri(file);
+        Set<LanguageServersRegistry.LanguageServerDefinition> availableDefinitions = LanguageServersRegistry.getInstance().getAvailableLSFor(file, project);
+        return startedServers.stream().filter(wrapper -> wrapper.isConnectedTo(fileUri)
+                || (availableDefinitions.contains(wrapper.serverDefinition)
+                && wrapper.canOperate(LSPIJUtils.getProject(file)))).filter(wrapper -> capabilitiesComply(wrapper, request))
+                .collect(Collectors.toList());
     }
 
     /**
      * Gets list of running LS satisfying a capability predicate. This does not
-     * start any matching language servers, it returns the already running ones.
+     * start any matching language servers, it returns the already initialized ones.
      *
      * @param request
      * @return list of Language Servers
@@ -512,7 +598,8 @@ public class LanguageServiceAccessor {
     }
 
     /**
-     * Gets list of LS initialized for given project.
+     * Gets list of LS initialized for given project. Language servers still initializing are not waited for
+     * and not returned, use {@link #getLanguageServers(Document, Predicate)} to compose on their initialization.
      *
      * @param project
      * @param request
@@ -525,11 +612,12 @@ public class LanguageServiceAccessor {
     }
 
     /**
-     * Gets list of LS initialized for given project
+     * Gets list of LS initialized for given project, without waiting for the language servers which are
+     * still initializing.
      *
      * @param onlyActiveLS true if this method should return only the already running
      *                     language servers, otherwise previously started language servers
-     *                     will be re-activated
+     *                     will be re-activated and returned once they are initialized
      * @return list of Language Servers
      */
     @Nonnull
@@ -538,14 +626,13 @@ public class LanguageServiceAccessor {
         List<LanguageServer> serverInfos = new ArrayList<>();
         for (LanguageServerWrapper wrapper : startedServers) {
             if ((!onlyActiveLS || wrapper.isActive()) && (project == null || wrapper.canOperate(project))) {
-                @Nullable
-                LanguageServer server = wrapper.getServer();
-                if (server == null) {
-                    continue;
+                if (!onlyActiveLS) {
+                    // restarts the language server if needed, without waiting for it
+                    wrapper.getInitializedServer();
                 }
-                if (request == null
-                        || wrapper.getServerCapabilities() == null /* null check is workaround for https://github.com/TypeFox/ls-api/issues/47 */
-                        || request.test(wrapper.getServerCapabilities())) {
+                @Nullable
+                LanguageServer server = wrapper.getServerIfInitialized();
+                if (server != null && capabilitiesComply(wrapper, request)) {
                     serverInfos.add(server);
                 }
             }
@@ -562,8 +649,7 @@ public class LanguageServiceAccessor {
         URI fileUri = LSPIJUtils.toUri(document);
         List<LSPDocumentInfo> res = new ArrayList<>();
         try {
-            getLSWrappers(document).stream().filter(wrapper -> wrapper.getServerCapabilities() == null
-                    || capabilityRequest.test(wrapper.getServerCapabilities())).forEach(wrapper -> {
+            getLSWrappers(document).stream().filter(wrapper -> capabilitiesComply(wrapper, capabilityRequest)).forEach(wrapper -> {
                 try {
                     wrapper.connect(document);
                 } catch (IOException e) {
@@ -596,7 +682,7 @@ public class LanguageServiceAccessor {
         try {
             return CompletableFuture.allOf(getLSWrappers(document).stream().map(wrapper ->
                     wrapper.getInitializedServer().thenComposeAsync(server -> {
-                        if (server != null && (filter == null || filter.test(wrapper.getServerCapabilities()))) {
+                        if (server != null && (filter == null || filter.test(wrapper.getServerCapabilitiesIfInitialized()))) {
                             try {
                                 return wrapper.connect(document);
                             } catch (IOException ex) {
@@ -616,13 +702,12 @@ public class LanguageServiceAccessor {
     }
 
     public boolean checkCapability(LanguageServer languageServer, Predicate<ServerCapabilities> condition) {
-        return startedServers.stream().filter(wrapper -> wrapper.isActive() && wrapper.getServer() == languageServer)
-                .anyMatch(wrapper -> condition.test(wrapper.getServerCapabilities()));
+        return startedServers.stream().filter(wrapper -> wrapper.isActive() && wrapper.isWrapperFor(languageServer))
+                .map(LanguageServerWrapper::getServerCapabilitiesIfInitialized)
+                .anyMatch(capabilities -> capabilities != null && condition.test(capabilities));
     }
 
     public Optional<LanguageServersRegistry.LanguageServerDefinition> resolveServerDefinition(LanguageServer languageServer) {
-        synchronized (startedServers) {
-            return startedServers.stream().filter(wrapper -> languageServer.equals(wrapper.getServer())).findFirst().map(wrapper -> wrapper.serverDefinition);
-        }
+        return startedServers.stream().filter(wrapper -> wrapper.isWrapperFor(languageServer)).findFirst().map(wrapper -> wrapper.serverDefinition);
     }
 }
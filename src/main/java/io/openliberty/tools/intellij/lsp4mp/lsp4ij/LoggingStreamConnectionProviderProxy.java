@@ -14,8 +14,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
 
 //TODO: implement LoggingStreamConnectionProviderProxy fully (preferences)
 public class LoggingStreamConnectionProviderProxy implements StreamConnectionProvider {
@@ -27,6 +26,7 @@ public class LoggingStreamConnectionProviderProxy implements StreamConnectionPro
     private InputStream errorStream;
     private final String id;
     private File logFile;
+    private final TraceLogWriter traceWriter;
     private boolean logToFile = true;
     private boolean logToConsole = false;
 
@@ -45,6 +45,7 @@ public class LoggingStreamConnectionProviderProxy implements StreamConnectionPro
         this.provider = provider;
         this.id = serverId;
         this.logFile = getLogFile();
+        this.traceWriter = logFile != null ? new TraceLogWriter(logFile) : null;
     }
 
     @Override
@@ -62,16 +63,8 @@ public class LoggingStreamConnectionProviderProxy implements StreamConnectionPro
                 @Override
                 public int read(byte[] b, int off, int len) throws IOException {
                     int bytes = super.read(b, off, len);
-                    byte[] payload = new byte[bytes];
-                    System.arraycopy(b, off, payload, 0, bytes);
-                    if (logToConsole || logToFile) {
-                        String s = "\n[t=" + System.currentTimeMillis() + "] " + id + " to LSP4E:\n" + new String(payload); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-                        if (logToConsole) {
-                            logToConsole(s);
-                        }
-                        if (logToFile) {
-                            logToFile(s);
-                        }
+                    if (bytes > 0) {
+                        log(id + " to LSP4E", b, off, bytes); //$NON-NLS-1$
                     }
                     return bytes;
                 }
@@ -89,16 +82,14 @@ public class LoggingStreamConnectionProviderProxy implements StreamConnectionPro
             outputStream = new FilterOutputStream(provider.getOutputStream()) {
                 @Override
                 public void write(byte[] b) throws IOException {
-                    if (logToConsole || logToFile) {
-                        String s = "\n[t=" + System.currentTimeMillis() + "] LSP4E to " + id + ":\n" + new String(b);  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-                        if (logToConsole) {
-                            logToConsole(s);
-                        }
-                        if (logToFile) {
-                            logToFile(s);
-                        }
-                    }
-                    super.write(b);
+                    log("LSP4E to " + id, b, 0, b.length); //$NON-NLS-1$
+                    out.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    log("LSP4E to " + id, b, off, len); //$NON-NLS-1$
+                    out.write(b, off, len);
                 }
             };
         }
@@ -116,16 +107,8 @@ public class LoggingStreamConnectionProviderProxy implements StreamConnectionPro
                 @Override
                 public int read(byte[] b, int off, int len) throws IOException {
                     int bytes = super.read(b, off, len);
-                    byte[] payload = new byte[bytes];
-                    System.arraycopy(b, off, payload, 0, bytes);
-                    if (logToConsole || logToFile) {
-                        String s = "\n[t=" + System.currentTimeMillis() + "] Error from " + id + ":\n" + new String(payload); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-                        if (logToConsole) {
-                            logToConsole(s);
-                        }
-                        if (logToFile) {
-                            logToFile(s);
-                        }
+                    if (bytes > 0) {
+                        log("Error from " + id, b, off, bytes); //$NON-NLS-1$
                     }
                     return bytes;
                 }
@@ -137,6 +120,9 @@ public class LoggingStreamConnectionProviderProxy implements StreamConnectionPro
     @Override
     public void stop() {
         provider.stop();
+        if (traceWriter != null) {
+            traceWriter.close();
+        }
     }
 
     @Override
@@ -144,6 +130,21 @@ public class LoggingStreamConnectionProviderProxy implements StreamConnectionPro
         return provider.forwardCopyTo(input, output);
     }
 
+    @Override
+    public @Nullable ProcessHandle getProcessHandle() {
+        return provider.getProcessHandle();
+    }
+
+    @Override
+    public boolean isHosted() {
+        return provider.isHosted();
+    }
+
+    @Override
+    public @Nullable CompletableFuture<?> onExit() {
+        return provider.onExit();
+    }
+
     @Override
     public String getTrace(URI rootUri) {
         return provider.getTrace(rootUri);
@@ -164,30 +165,19 @@ public class LoggingStreamConnectionProviderProxy implements StreamConnectionPro
         provider.handleMessage(message, languageServer, rootURI);
     }
 
-    private void logToConsole(String string) {
-        System.out.println(string);
-    }
-
-    private void logToFile(String string) {
-        if (logFile == null) {
-            return;
+    private void log(String header, byte[] payload, int off, int len) {
+        if (logToConsole) {
+            logToConsole("\n[t=" + System.currentTimeMillis() + "] " + header + ":\n" + new String(payload, off, len)); //$NON-NLS-1$ //$NON-NLS-2$
         }
-        if (!logFile.exists()) {
-            try {
-                if (!logFile.createNewFile()) {
-                    throw new IOException(String.format("Failed to create file %s", logFile.toString())); //$NON-NLS-1$
-                }
-            } catch (IOException e) {
-                LOGGER.warn(e.getLocalizedMessage(), e);
-            }
-        }
-        try {
-            Files.write(logFile.toPath(), string.getBytes(), StandardOpenOption.APPEND);
-        } catch (IOException e) {
-            LOGGER.warn(e.getLocalizedMessage(), e);
+        if (logToFile && traceWriter != null) {
+            traceWriter.write(header, payload, off, len);
         }
     }
 
+    private void logToConsole(String string) {
+        System.out.println(string);
+    }
+
     private File getLogFile() {
         if (logFile != null) {
             return logFile;
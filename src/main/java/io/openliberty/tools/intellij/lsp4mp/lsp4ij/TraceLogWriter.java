@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.lsp4mp.lsp4ij;
+
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous, buffered writer of the language server trace file.
+ * <p>
+ * Records are queued by the JSON-RPC threads and written to the file by a background task, which keeps
+ * the file open while records are pending. When the queue is full, new records are dropped and the number
+ * of dropped records is written to the file. When the file exceeds its maximum size, it is rotated to
+ * <code>&lt;file&gt;.1</code>, <code>&lt;file&gt;.2</code>...
+ * <p>
+ * Limits can be tuned with the <code>open-liberty.intellij.trace.*</code> system properties.
+ */
+public class TraceLogWriter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TraceLogWriter.class);
+
+    private static final long MAX_FILE_SIZE = Long.getLong("open-liberty.intellij.trace.maxFileSize", 10L * 1024 * 1024);
+    private static final int MAX_BACKUP_FILES = Integer.getInteger("open-liberty.intellij.trace.maxBackupFiles", 3);
+    private static final int MAX_QUEUED_RECORDS = Integer.getInteger("open-liberty.intellij.trace.maxQueuedRecords", 10000);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File file;
+    private final BlockingQueue<Record> queue = new ArrayBlockingQueue<>(MAX_QUEUED_RECORDS);
+    private final ExecutorService executor;
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private volatile boolean closed;
+
+    private OutputStream output;
+    private long fileSize;
+
+    public TraceLogWriter(File file) {
+        this.file = file;
+        this.executor = AppExecutorUtil.createBoundedApplicationPoolExecutor("Liberty Language Server Trace (" + file.getName() + ")", 1);
+    }
+
+    /**
+     * Queues a trace record. The payload is copied, so the given buffer can be reused by the caller.
+     * This method never blocks: the record is dropped if the queue is full.
+     *
+     * @param header the header of the record
+     * @param payload the buffer containing the payload
+     * @param off the offset of the payload in the buffer
+     * @param len the length of the payload
+     */
+    public void write(String header, byte[] payload, int off, int len) {
+        if (closed) {
+            return;
+        }
+        byte[] copy = new byte[len];
+        System.arraycopy(payload, off, copy, 0, len);
+        if (queue.offer(new Record(System.currentTimeMillis(), header, copy))) {
+            scheduleDrain();
+        } else {
+            droppedRecords.incrementAndGet();
+        }
+    }
+
+    /**
+     * Writes the pending records and closes the file.
+     */
+    public void close() {
+        closed = true;
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Record record;
+            while ((record = queue.poll()) != null) {
+                long dropped = droppedRecords.getAndSet(0);
+                if (dropped > 0) {
+                    write(("\n[t=" + record.timestamp + "] " + dropped + " trace records dropped\n").getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+                write(("\n[t=" + record.timestamp + "] " + record.header + ":\n").getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$ //$NON-NLS-2$
+                write(record.payload);
+            }
+            if (output != null) {
+                output.flush();
+                if (closed) {
+                    output.close();
+                    output = null;
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn(e.getLocalizedMessage(), e);
+            closeQuietly();
+        } finally {
+            draining.set(false);
+        }
+        // close() may have been called after the check above, its drain was not scheduled while this one ran
+        if (!queue.isEmpty() || (closed && output != null)) {
+            scheduleDrain();
+        }
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        if (output == null) {
+            fileSize = file.exists() ? file.length() : 0;
+            output = new BufferedOutputStream(new FileOutputStream(file, true), BUFFER_SIZE);
+        }
+        if (fileSize > 0 && fileSize + bytes.length > MAX_FILE_SIZE) {
+            rotate();
+        }
+        output.write(bytes);
+        fileSize += bytes.length;
+    }
+
+    private void rotate() throws IOException {
+        output.close();
+        for (int i = MAX_BACKUP_FILES - 1; i >= 1; i--) {
+            File backup = new File(file.getPath() + "." + i); //$NON-NLS-1$
+            if (backup.exists()) {
+                Files.move(backup.toPath(), new File(file.getPath() + "." + (i + 1)).toPath(), StandardCopyOption.REPLACE_EXISTING); //$NON-NLS-1$
+            }
+        }
+        if (MAX_BACKUP_FILES > 0) {
+            Files.move(file.toPath(), new File(file.getPath() + ".1").toPath(), StandardCopyOption.REPLACE_EXISTING); //$NON-NLS-1$
+        } else {
+            Files.delete(file.toPath());
+        }
+        output = new BufferedOutputStream(new FileOutputStream(file, true), BUFFER_SIZE);
+        fileSize = 0;
+    }
+
+    private void closeQuietly() {
+        if (output != null) {
+            try {
+                output.close();
+            } catch (IOException e) {
+                // ignore
+            }
+            output = null;
+        }
+    }
+
+    private static class Record {
+
+        private final long timestamp;
+        private final String header;
+        private final byte[] payload;
+
+        private Record(long timestamp, String header, byte[] payload) {
+            this.timestamp = timestamp;
+            this.header = header;
+            this.payload = payload;
+        }
+    }
+}
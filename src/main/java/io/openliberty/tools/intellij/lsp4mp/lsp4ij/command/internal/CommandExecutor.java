@@ -114,6 +114,10 @@ public class CommandExecutor {
             }
             // Server can handle command
             languageServerFuture.thenAcceptAsync(server -> {
+                if (server == null) {
+                    // the server was initializing and doesn't support the command
+                    return;
+                }
                 ExecuteCommandParams params = new ExecuteCommandParams();
                 params.setCommand(command.getCommand());
                 params.setArguments(command.getArguments());
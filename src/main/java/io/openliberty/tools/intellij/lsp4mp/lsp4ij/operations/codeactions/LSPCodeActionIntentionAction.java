@@ -65,7 +65,7 @@ public class LSPCodeActionIntentionAction implements IntentionAction {
     }
 
     private boolean isCodeActionResolveSupported() {
-        ServerCapabilities capabilities = this.languageServerWrapper.getServerCapabilities();
+        ServerCapabilities capabilities = this.languageServerWrapper.getServerCapabilitiesIfInitialized();
         if (capabilities != null) {
             Either<Boolean, CodeActionOptions> caProvider = capabilities.getCodeActionProvider();
             if (caProvider.isLeft()) {
@@ -130,7 +130,7 @@ public class LSPCodeActionIntentionAction implements IntentionAction {
     }
 
     private boolean canSupportCommand(Command command) {
-        ServerCapabilities capabilities = this.languageServerWrapper.getServerCapabilities();
+        ServerCapabilities capabilities = this.languageServerWrapper.getServerCapabilitiesIfInitialized();
         if (capabilities != null) {
             ExecuteCommandOptions provider = capabilities.getExecuteCommandProvider();
             return (provider != null && provider.getCommands().contains(command.getCommand()));
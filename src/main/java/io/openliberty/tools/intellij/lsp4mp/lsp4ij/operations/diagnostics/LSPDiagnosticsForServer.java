@@ -66,7 +66,7 @@ public class LSPDiagnosticsForServer {
     }
 
     private static boolean isCodeActionSupported(LanguageServerWrapper languageServerWrapper) {
-        ServerCapabilities serverCapabilities = languageServerWrapper.getServerCapabilities();
+        ServerCapabilities serverCapabilities = languageServerWrapper.getServerCapabilitiesIfInitialized();
         return serverCapabilities != null && LSPIJUtils.hasCapability(serverCapabilities.getCodeActionProvider());
     }
 
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.lsp4mp.lsp4ij.server;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.jar.JarFile;
+
+/**
+ * Main class of the JVM hosting several language servers, see {@link SharedLanguageServerHost}.
+ * <p>
+ * This class runs outside of the IDE and must only depend on the JDK.
+ * <p>
+ * The host reads commands from its standard input, one per line, with tab separated fields:
+ * <ul>
+ * <li><code>start &lt;id&gt; &lt;port&gt; &lt;class path&gt; &lt;main class&gt;</code> connects
+ * to the given loopback port and runs the language server in its own class loader. The main class can be empty
+ * to use the Main-Class of the first jar. The id identifies the language server of a project, so the same
+ * language server can be hosted for several projects.</li>
+ * <li><code>stop &lt;id&gt;</code> closes the socket and the class loader of the language server.</li>
+ * </ul>
+ * Only the language servers whose main class has a static <code>launch(InputStream, OutputStream)</code> method,
+ * as the LemMinX launcher does, can be hosted: the socket streams are passed to it. The first line written on the
+ * socket is <code>OK</code>, or <code>ERROR &lt;reason&gt;</code> when the language server can't be hosted, in
+ * which case the IDE starts it in its own process.
+ * <p>
+ * The hosted language servers are initialized with <code>shouldLanguageServerExitOnShutdown</code> set to false
+ * and don't receive the LSP <code>exit</code> notification, which would exit the JVM and stop all the hosted
+ * servers: a language server is stopped by closing its socket instead. The host exits when its standard input
+ * is closed, i.e. when its last language server is stopped or when the IDE exits.
+ */
+public final class LanguageServerHostMain {
+
+    static final String STATUS_OK = "OK";
+    static final String STATUS_ERROR = "ERROR";
+
+    private static final Map<String, HostedServer> SERVERS = new ConcurrentHashMap<>();
+    private static final PrintStream LOG = System.err;
+
+    private LanguageServerHostMain() {
+
+    }
+
+    public static void main(String[] args) throws IOException {
+        PrintStream stdout = System.out;
+        System.setOut(LOG);
+        BufferedReader commands = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = commands.readLine()) != null) {
+            String[] fields = line.split("\t", -1);
+            try {
+                if ("start".equals(fields[0]) && fields.length >= 5) {
+                    start(fields[1], Integer.parseInt(fields[2]), fields[3], fields[4]);
+                } else if ("stop".equals(fields[0]) && fields.length >= 2) {
+                    stop(fields[1]);
+                } else {
+                    LOG.println("Unknown command: " + line);
+                }
+            } catch (Exception e) {
+                LOG.println("Command failed: " + line);
+                e.printStackTrace(LOG);
+            }
+        }
+        stdout.flush();
+        System.exit(0);
+    }
+
+    private static void start(String id, int port, String classPath, String mainClassName) throws Exception {
+        stop(id);
+        List<URL> urls = new ArrayList<>();
+        for (String entry : classPath.split(File.pathSeparator)) {
+            urls.add(new File(entry).toURI().toURL());
+        }
+        if (mainClassName.isEmpty()) {
+            try (JarFile jar = new JarFile(classPath.split(File.pathSeparator)[0])) {
+                mainClassName = jar.getManifest().getMainAttributes().getValue("Main-Class");
+            }
+        }
+        URLClassLoader loader = new URLClassLoader("language-server-" + id, urls.toArray(new URL[0]),
+                ClassLoader.getPlatformClassLoader());
+        Method launch = null;
+        String error;
+        try {
+            launch = getLaunchMethod(loader.loadClass(mainClassName));
+            error = launch == null ? mainClassName + " has no static launch(InputStream, OutputStream) method" : null;
+        } catch (ClassNotFoundException | LinkageError e) {
+            error = e.toString();
+        }
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        OutputStream out = socket.getOutputStream();
+        if (error != null) {
+            try {
+                out.write((STATUS_ERROR + ' ' + error.replace('\n', ' ') + '\n').getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            } finally {
+                socket.close();
+                loader.close();
+            }
+            LOG.println("Language server " + id + " can't be hosted: " + error);
+            return;
+        }
+        out.write((STATUS_OK + '\n').getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        InputStream in = socket.getInputStream();
+
+        HostedServer server = new HostedServer(socket, loader);
+        Method launchMethod = launch;
+        Thread thread = new Thread(() -> {
+            boolean ended = false;
+            try {
+                Object result = launchMethod.invoke(null, in, out);
+                if (result instanceof Future<?>) {
+                    // the launcher listens on its own thread until the socket is closed
+                    ((Future<?>) result).get();
+                    ended = true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                if (SERVERS.get(id) == server) {
+                    LOG.println("Language server " + id + " failed");
+                    e.printStackTrace(LOG);
+                }
+                ended = true;
+            } finally {
+                // a language server which ended on its own releases its socket and class loader too
+                if (ended) {
+                    stop(id, server);
+                }
+            }
+        }, "Language Server " + id);
+        thread.setContextClassLoader(loader);
+        server.thread = thread;
+        SERVERS.put(id, server);
+        thread.start();
+        LOG.println("Language server " + id + " started");
+    }
+
+    private static Method getLaunchMethod(Class<?> mainClass) {
+        try {
+            Method launch = mainClass.getMethod("launch", InputStream.class, OutputStream.class);
+            return Modifier.isStatic(launch.getModifiers()) ? launch : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static void stop(String id) {
+        HostedServer server = SERVERS.get(id);
+        if (server != null) {
+            stop(id, server);
+        }
+    }
+
+    private static void stop(String id, HostedServer server) {
+        if (!SERVERS.remove(id, server)) {
+            return;
+        }
+        try {
+            server.socket.close();
+        } catch (IOException e) {
+            e.printStackTrace(LOG);
+        }
+        if (server.thread != null && server.thread != Thread.currentThread()) {
+            server.thread.interrupt();
+        }
+        try {
+            server.loader.close();
+        } catch (IOException e) {
+            e.printStackTrace(LOG);
+        }
+        LOG.println("Language server " + id + " stopped");
+    }
+
+    private static class HostedServer {
+
+        private final Socket socket;
+        private final URLClassLoader loader;
+        private volatile Thread thread;
+
+        private HostedServer(Socket socket, URLClassLoader loader) {
+            this.socket = socket;
+            this.loader = loader;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.lsp4mp.lsp4ij.server;
+
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.roots.OrderEnumerator;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent cache directory of a language server for a project, under
+ * <code>open-liberty/language-servers/&lt;project&gt;/&lt;server&gt;</code> in the IDE system directory.
+ * <p>
+ * Language servers keep state in the directory which survives the restarts of the server and of the IDE,
+ * such as the XML schemas downloaded by LemMinX. The directory is emptied when the fingerprint of the
+ * project changes: a SHA-256 of the content of the build files at the content roots of the modules and of
+ * the path, size and modification time of the dependency jars. The fingerprint is only computed again when
+ * the project roots or the build files were modified since the directory was last prepared, so restarting
+ * a language server doesn't hash the project again.
+ */
+public final class LanguageServerWorkspaceCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LanguageServerWorkspaceCache.class);
+
+    private static final String FINGERPRINT_FILE_NAME = ".fingerprint"; //$NON-NLS-1$
+
+    private static final Set<String> BUILD_FILE_NAMES = Set.of("pom.xml", "build.gradle", "settings.gradle", "gradle.properties"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+    /**
+     * Modification stamp of the project roots and build files when each directory was last prepared.
+     */
+    private static final Map<Path, Long> PREPARED_STAMPS = new ConcurrentHashMap<>();
+
+    private LanguageServerWorkspaceCache() {
+
+    }
+
+    /**
+     * Returns the cache directory of the given language server for the given project, emptied first if
+     * the build files or the dependencies of the project changed since it was last used.
+     *
+     * @param project the project.
+     * @param serverId the language server id.
+     * @return the cache directory, or <code>null</code> if it can't be created.
+     */
+    public static @Nullable Path getCacheDirectory(Project project, String serverId) {
+        Path directory = Paths.get(PathManager.getSystemPath(), "open-liberty", "language-servers", //$NON-NLS-1$ //$NON-NLS-2$
+                project.getLocationHash(), serverId);
+        try {
+            long stamp = ReadAction.compute(() -> computeStamp(project));
+            Path fingerprintFile = directory.resolve(FINGERPRINT_FILE_NAME);
+            Long preparedStamp = PREPARED_STAMPS.get(directory);
+            if (preparedStamp != null && preparedStamp == stamp && Files.isRegularFile(fingerprintFile)) {
+                return directory;
+            }
+            String fingerprint = ReadAction.compute(() -> computeFingerprint(project));
+            if (Files.isRegularFile(fingerprintFile)
+                    && fingerprint.equals(Files.readString(fingerprintFile, StandardCharsets.US_ASCII))) {
+                PREPARED_STAMPS.put(directory, stamp);
+                return directory;
+            }
+            if (Files.exists(directory)) {
+                LOGGER.info("Clearing the cache of the " + serverId + " language server, the project changed: " + directory); //$NON-NLS-1$ //$NON-NLS-2$
+                FileUtil.delete(directory);
+            }
+            Files.createDirectories(directory);
+            Files.writeString(fingerprintFile, fingerprint, StandardCharsets.US_ASCII);
+            PREPARED_STAMPS.put(directory, stamp);
+            return directory;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Unable to prepare the cache of the " + serverId + " language server: " + e.getLocalizedMessage(), e); //$NON-NLS-1$ //$NON-NLS-2$
+            return null;
+        }
+    }
+
+    private static long computeStamp(Project project) {
+        long stamp = ProjectRootManager.getInstance(project).getModificationCount();
+        for (VirtualFile buildFile : getBuildFiles(project)) {
+            stamp = 31 * stamp + buildFile.getPath().hashCode();
+            stamp = 31 * stamp + buildFile.getModificationStamp();
+        }
+        return stamp;
+    }
+
+    private static List<VirtualFile> getBuildFiles(Project project) {
+        List<VirtualFile> buildFiles = new ArrayList<>();
+        for (Module module : ModuleManager.getInstance(project).getModules()) {
+            for (VirtualFile contentRoot : ModuleRootManager.getInstance(module).getContentRoots()) {
+                for (String name : BUILD_FILE_NAMES) {
+                    VirtualFile buildFile = contentRoot.findChild(name);
+                    if (buildFile != null && !buildFile.isDirectory()) {
+                        buildFiles.add(buildFile);
+                    }
+                }
+            }
+        }
+        buildFiles.sort((a, b) -> a.getPath().compareTo(b.getPath()));
+        return buildFiles;
+    }
+
+    /**
+     * Creates the SHA-256 digest of the fingerprints and cache keys of the plugin, see {@link #toHex(byte[])}.
+     *
+     * @return a new digest.
+     * @throws IOException if SHA-256 is not available.
+     */
+    public static MessageDigest createDigest() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * @param hash the bytes of a digest.
+     * @return the lower case hexadecimal representation of the given bytes, usable in file names.
+     */
+    public static String toHex(byte[] hash) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : hash) {
+            hex.append(String.format("%02x", b)); //$NON-NLS-1$
+        }
+        return hex.toString();
+    }
+
+    private static String computeFingerprint(Project project) throws IOException {
+        MessageDigest digest = createDigest();
+        for (VirtualFile buildFile : getBuildFiles(project)) {
+            digest.update(buildFile.getPath().getBytes(StandardCharsets.UTF_8));
+            digest.update(buildFile.contentsToByteArray());
+        }
+
+        // hashing the content of every jar would cost more than the warm up the cache saves
+        List<String> jars = new ArrayList<>();
+        for (VirtualFile root : OrderEnumerator.orderEntries(project).librariesOnly().classes().getRoots()) {
+            VirtualFile jar = VfsUtilCore.getVirtualFileForJar(root);
+            File file = jar != null ? VfsUtilCore.virtualToIoFile(jar) : VfsUtilCore.virtualToIoFile(root);
+            jars.add(file.getPath() + ':' + file.length() + ':' + file.lastModified());
+        }
+        Collections.sort(jars);
+        for (String jar : jars) {
+            digest.update(jar.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return toHex(digest.digest());
+    }
+}
@@ -1,16 +1,24 @@
 package io.openliberty.tools.intellij.lsp4mp.lsp4ij.server;
 
+import com.intellij.openapi.project.Project;
 import io.openliberty.tools.intellij.lsp4mp.lsp.MicroProfileServer;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.LanguageServerSettings;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.LanguageServerShutdownCoordinator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 public abstract class ProcessStreamConnectionProvider implements StreamConnectionProvider{
     private static final Logger LOGGER = LoggerFactory.getLogger(ProcessStreamConnectionProvider.class);
@@ -18,6 +26,11 @@ public abstract class ProcessStreamConnectionProvider implements StreamConnectio
     private @Nullable Process process;
     private List<String> commands;
     private @Nullable String workingDir;
+    private @Nullable String sharedHostServerId;
+    private @Nullable Project workspaceProject;
+    private @Nullable Socket hostedSocket;
+    private @Nullable InputStream hostedInputStream;
+    private @Nullable CompletableFuture<Void> hostedExit;
 
     public ProcessStreamConnectionProvider() {
     }
@@ -37,9 +50,24 @@ public abstract class ProcessStreamConnectionProvider implements StreamConnectio
             throw new IOException("Unable to start language server: " + this.toString()); //$NON-NLS-1$
         }
 
+        if (sharedHostServerId != null) {
+            try {
+                Socket socket = SharedLanguageServerHost.getInstance().connect(sharedHostServerId, getCommands());
+                CompletableFuture<Void> exit = new CompletableFuture<>();
+                this.hostedExit = exit;
+                this.hostedInputStream = new HostedInputStream(socket.getInputStream(), exit);
+                this.hostedSocket = socket;
+                LOGGER.info("Started language server in the shared host: " + this.toString());
+                return;
+            } catch (IOException e) {
+                LOGGER.warn("Unable to start language server in the shared host, starting a separate process: " + e.getLocalizedMessage(), e);
+            }
+        }
+
         ProcessBuilder builder = createProcessBuilder();
         Process p = builder.start();
         this.process = p;
+        LanguageServerShutdownCoordinator.track(p.toHandle());
         if (!p.isAlive()) {
             throw new IOException("Unable to start language server: " + this.toString()); //$NON-NLS-1$
         } else {
@@ -47,6 +75,64 @@ public abstract class ProcessStreamConnectionProvider implements StreamConnectio
         }
     }
 
+    /**
+     * Returns the command starting a JVM with the options configured for the given language server
+     * in {@link LanguageServerSettings}. The caller appends the class path and main class or jar.
+     *
+     * @param javaHome the Java home used to run the language server.
+     * @param serverId the language server id.
+     * @return a modifiable list starting with the java executable.
+     */
+    protected static List<String> createJavaCommand(String javaHome, String serverId) {
+        List<String> command = new ArrayList<>();
+        command.add(javaHome + File.separator + "bin" + File.separator + "java");
+        command.addAll(LanguageServerSettings.getInstance().getJvmArguments(serverId));
+        return command;
+    }
+
+    /**
+     * Runs the language server in the {@link SharedLanguageServerHost} instead of its own process.
+     * If the language server can't be started in the host, it's started in its own process.
+     *
+     * @param serverId the id of the language server in the host, unique per project, or <code>null</code> to run it
+     *                 in its own process.
+     */
+    public void setSharedHostServerId(@Nullable String serverId) {
+        this.sharedHostServerId = serverId;
+    }
+
+    /**
+     * @return true if the language server runs in the {@link SharedLanguageServerHost}. A hosted language server
+     * must not exit the JVM on shutdown, which would stop the other hosted language servers.
+     */
+    @Override
+    public boolean isHosted() {
+        return hostedSocket != null;
+    }
+
+    /**
+     * Sets the project of the language server, whose persistent cache directory can be passed in the
+     * initialization options, see {@link #getWorkspaceCacheDirectory(String)}.
+     *
+     * @param project the project, or <code>null</code> if the language server is not started for a project.
+     */
+    public void setWorkspaceProject(@Nullable Project project) {
+        this.workspaceProject = project;
+    }
+
+    /**
+     * Returns the persistent cache directory of the language server for the project, see {@link LanguageServerWorkspaceCache}.
+     * Only the language servers with a persistent cache call it, since preparing the directory reads the build files
+     * of the project.
+     *
+     * @param serverId the language server id.
+     * @return the cache directory, or <code>null</code> if there is no project or the directory can't be created.
+     */
+    protected @Nullable Path getWorkspaceCacheDirectory(String serverId) {
+        Project project = workspaceProject;
+        return project != null ? LanguageServerWorkspaceCache.getCacheDirectory(project, serverId) : null;
+    }
+
     protected ProcessBuilder createProcessBuilder() {
         ProcessBuilder builder = new ProcessBuilder(getCommands());
         if (getWorkingDirectory() != null) {
@@ -58,30 +144,77 @@ public abstract class ProcessStreamConnectionProvider implements StreamConnectio
 
     @Override
     public @Nullable InputStream getInputStream() {
+        if (hostedSocket != null) {
+            return hostedInputStream;
+        }
         Process p = process;
         return p == null ? null : p.getInputStream();
     }
 
     @Override
     public @Nullable InputStream getErrorStream() {
+        if (hostedSocket != null) {
+            return null;
+        }
         Process p = process;
         return p == null ? null : p.getErrorStream();
     }
 
     @Override
     public @Nullable OutputStream getOutputStream() {
+        Socket socket = hostedSocket;
+        if (socket != null) {
+            try {
+                return socket.getOutputStream();
+            } catch (IOException e) {
+                LOGGER.warn(e.getLocalizedMessage(), e);
+                return null;
+            }
+        }
         Process p = process;
         return p == null ? null : p.getOutputStream();
     }
 
     @Override
     public void stop() {
+        Socket socket = hostedSocket;
+        if (socket != null) {
+            hostedSocket = null;
+            SharedLanguageServerHost.getInstance().disconnect(sharedHostServerId);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                LOGGER.warn(e.getLocalizedMessage(), e);
+            }
+            return;
+        }
         Process p = process;
         if (p != null) {
             p.destroy();
         }
     }
 
+    @Override
+    public @Nullable ProcessHandle getProcessHandle() {
+        if (hostedSocket != null) {
+            return SharedLanguageServerHost.getInstance().getProcessHandle();
+        }
+        Process p = process;
+        return p == null ? null : p.toHandle();
+    }
+
+    /**
+     * The process of a hosted language server is the shared host, which outlives it: the language server
+     * exited when its socket is closed by the host.
+     */
+    @Override
+    public @Nullable CompletableFuture<?> onExit() {
+        if (hostedSocket != null) {
+            return hostedExit;
+        }
+        return StreamConnectionProvider.super.onExit();
+    }
+
     protected List<String> getCommands() {
         return commands;
     }
@@ -98,6 +231,47 @@ public abstract class ProcessStreamConnectionProvider implements StreamConnectio
         this.workingDir = workingDir;
     }
 
+    /**
+     * Input of a hosted language server, completing the exit future at the end of the stream.
+     */
+    private static class HostedInputStream extends FilterInputStream {
+
+        private final CompletableFuture<Void> exit;
+
+        private HostedInputStream(InputStream in, CompletableFuture<Void> exit) {
+            super(in);
+            this.exit = exit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                int b = super.read();
+                if (b == -1) {
+                    exit.complete(null);
+                }
+                return b;
+            } catch (IOException e) {
+                exit.complete(null);
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                int count = super.read(b, off, len);
+                if (count == -1) {
+                    exit.complete(null);
+                }
+                return count;
+            } catch (IOException e) {
+                exit.complete(null);
+                throw e;
+            }
+        }
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == null) {
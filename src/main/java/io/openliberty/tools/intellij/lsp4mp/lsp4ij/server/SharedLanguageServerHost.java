@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.lsp4mp.lsp4ij.server;
+
+import com.intellij.openapi.application.PathManager;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.LanguageServerSettings;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.LanguageServerShutdownCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single JVM hosting the language servers of the projects which opted in, instead of one JVM per
+ * language server. Each language server is loaded in its own class loader by {@link LanguageServerHostMain}
+ * and talks to the IDE through its own loopback socket.
+ * <p>
+ * The host is started on the first connection and exits when its last language server is stopped, or with the
+ * IDE. Its process is tracked by {@link LanguageServerShutdownCoordinator}. The JVM options of the host are the
+ * <code>host</code> entry of {@link LanguageServerSettings}, and its output is written to
+ * <code>liberty-language-server-host.log</code> in the IDE log directory.
+ */
+public final class SharedLanguageServerHost {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedLanguageServerHost.class);
+
+    public static final String HOST_ID = "host"; //$NON-NLS-1$
+
+    private static final int CONNECT_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(
+            Long.getLong("open-liberty.intellij.ls.host.connectTimeoutSeconds", 60));
+
+    private static final SharedLanguageServerHost INSTANCE = new SharedLanguageServerHost();
+
+    private Process process;
+    private Writer commands;
+    /**
+     * The ids of the language servers running in the host.
+     */
+    private final Set<String> serverIds = new HashSet<>();
+
+    private SharedLanguageServerHost() {
+
+    }
+
+    public static SharedLanguageServerHost getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts the language server described by the given command in the host.
+     *
+     * @param serverId the id of the language server in the host, unique per project.
+     * @param command the command which would start the language server in its own process,
+     *                either <code>java [options] -jar &lt;jar&gt; [args]</code> or
+     *                <code>java [options] -cp &lt;class path&gt; &lt;main class&gt; [args]</code>.
+     *                The JVM options are ignored.
+     * @return the socket connected to the language server.
+     * @throws IOException if the host or the language server can't be started, e.g. if the main class of the
+     * language server has no <code>launch(InputStream, OutputStream)</code> method.
+     */
+    public Socket connect(String serverId, List<String> command) throws IOException {
+        List<String> fields = new ArrayList<>();
+        fields.add("start"); //$NON-NLS-1$
+        fields.add(serverId);
+        int index = 1;
+        while (index < command.size() && !isClassPathOption(command.get(index)) && !"-jar".equals(command.get(index))) { //$NON-NLS-1$
+            index++;
+        }
+        if (index + 1 >= command.size()) {
+            throw new IOException("Unable to host language server " + serverId + ", unsupported command: " + command); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        boolean jar = "-jar".equals(command.get(index)); //$NON-NLS-1$
+        String classPath = command.get(index + 1);
+        String mainClass = jar ? "" : command.get(index + 2); //$NON-NLS-1$
+
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            serverSocket.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+            fields.add(Integer.toString(serverSocket.getLocalPort()));
+            fields.add(classPath);
+            fields.add(mainClass);
+            synchronized (this) {
+                sendCommand(fields);
+                serverIds.add(serverId);
+            }
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketTimeoutException e) {
+                disconnect(serverId);
+                throw new IOException("Language server " + serverId + " did not connect from the shared host", e); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            String status = readStatus(socket);
+            if (!LanguageServerHostMain.STATUS_OK.equals(status)) {
+                socket.close();
+                disconnect(serverId);
+                throw new IOException("Unable to host language server " + serverId + ": " + status); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            return socket;
+        }
+    }
+
+    /**
+     * Reads the first line written by the host on the socket of a language server, without reading the
+     * messages of the language server which follow it.
+     */
+    private static String readStatus(Socket socket) throws IOException {
+        socket.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+        InputStream in = socket.getInputStream();
+        StringBuilder status = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            status.append((char) c);
+        }
+        socket.setSoTimeout(0);
+        return status.toString();
+    }
+
+    /**
+     * Stops the given language server in the host. The host exits once its last language server is stopped.
+     *
+     * @param serverId the id of the language server in the host, unique per project.
+     */
+    public synchronized void disconnect(String serverId) {
+        serverIds.remove(serverId);
+        if (!isAlive()) {
+            return;
+        }
+        try {
+            sendCommand(List.of("stop", serverId)); //$NON-NLS-1$
+            if (serverIds.isEmpty()) {
+                // the host exits when its standard input is closed
+                commands.close();
+                process = null;
+                commands = null;
+                LOGGER.info("Stopped the shared language server host"); //$NON-NLS-1$
+            }
+        } catch (IOException e) {
+            LOGGER.warn(e.getLocalizedMessage(), e);
+        }
+    }
+
+    /**
+     * @return the process of the host, or <code>null</code> if it's not started.
+     */
+    public synchronized @Nullable ProcessHandle getProcessHandle() {
+        return process != null ? process.toHandle() : null;
+    }
+
+    private synchronized boolean isAlive() {
+        return process != null && process.isAlive();
+    }
+
+    private synchronized void sendCommand(List<String> fields) throws IOException {
+        ensureStarted();
+        commands.write(String.join("\t", fields)); //$NON-NLS-1$
+        commands.write('\n');
+        commands.flush();
+    }
+
+    private void ensureStarted() throws IOException {
+        if (process != null && process.isAlive()) {
+            return;
+        }
+        // the language servers of a host which crashed are not running anymore
+        serverIds.clear();
+        String javaHome = System.getProperty("java.home"); //$NON-NLS-1$
+        String classPath = PathManager.getJarPathForClass(LanguageServerHostMain.class);
+        if (javaHome == null || classPath == null) {
+            throw new IOException("Unable to start the shared language server host"); //$NON-NLS-1$
+        }
+        List<String> command = new ArrayList<>();
+        command.add(javaHome + File.separator + "bin" + File.separator + "java"); //$NON-NLS-1$ //$NON-NLS-2$
+        command.addAll(LanguageServerSettings.getInstance().getJvmArguments(HOST_ID));
+        command.add("-cp"); //$NON-NLS-1$
+        command.add(classPath);
+        command.add(LanguageServerHostMain.class.getName());
+        File log = new File(PathManager.getLogPath(), "liberty-language-server-host.log"); //$NON-NLS-1$
+        process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(log))
+                .start();
+        commands = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        LanguageServerShutdownCoordinator.track(process.toHandle());
+        LOGGER.info("Started the shared language server host: " + command); //$NON-NLS-1$
+    }
+
+    private static boolean isClassPathOption(String option) {
+        return "-cp".equals(option) || "-classpath".equals(option) || "--class-path".equals(option); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+}
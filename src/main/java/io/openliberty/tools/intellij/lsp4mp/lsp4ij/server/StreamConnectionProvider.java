@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.concurrent.CompletableFuture;
 
 public interface StreamConnectionProvider {
     public void start() throws IOException;
@@ -110,6 +111,36 @@ public interface StreamConnectionProvider {
 
     public void stop();
 
+    /**
+     * Returns the process running the language server, used to report its resource usage.
+     *
+     * @return the process of the language server or <code>null</code> if it's not started
+     *         or doesn't run in a separate process.
+     */
+    public default @Nullable ProcessHandle getProcessHandle() {
+        return null;
+    }
+
+    /**
+     * Returns whether the language server shares its process with other language servers. It must not exit
+     * the process on shutdown, and doesn't receive the LSP <code>exit</code> notification: it's stopped by {@link #stop()}.
+     *
+     * @return false by default.
+     */
+    public default boolean isHosted() {
+        return false;
+    }
+
+    /**
+     * Returns a future completed when the language server exits, used to restart it after a crash.
+     *
+     * @return the exit of the process of the language server by default, or <code>null</code> if it's not started.
+     */
+    public default @Nullable CompletableFuture<?> onExit() {
+        ProcessHandle process = getProcessHandle();
+        return process != null ? process.onExit() : null;
+    }
+
     /**
      * Allows to hook custom behavior on messages.
      * @param message a message
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.lsp4mp.lsp4ij.ui;
+
+import com.intellij.openapi.options.Configurable;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.ui.components.JBCheckBox;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBTextField;
+import com.intellij.util.ui.FormBuilder;
+import com.intellij.util.ui.UIUtil;
+import io.openliberty.tools.intellij.LibertyProjectSettings;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.LanguageServerSettings;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.ServerExtensionPointBean;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.server.SharedLanguageServerHost;
+import io.openliberty.tools.intellij.util.LocalizedResourceUtil;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings page of the language servers, under Tools. The JVM options, the prestart option and the
+ * document size limit apply to all the projects, the shared host option applies to the current project.
+ */
+public class LanguageServerSettingsConfigurable implements Configurable {
+
+    private final Project project;
+    private final Map<String, JBTextField> jvmOptionFields = new LinkedHashMap<>();
+    private JBCheckBox sharedHostCheckBox;
+    private JBCheckBox prestartCheckBox;
+    private JBIntSpinner documentSizeLimitSpinner;
+    private JPanel panel;
+
+    public LanguageServerSettingsConfigurable(Project project) {
+        this.project = project;
+    }
+
+    @Nls
+    @Override
+    public String getDisplayName() {
+        return LocalizedResourceUtil.getMessage("language.servers.settings.display.name");
+    }
+
+    @Nullable
+    @Override
+    public JComponent createComponent() {
+        FormBuilder builder = FormBuilder.createFormBuilder();
+        builder.addComponent(new JBLabel(LocalizedResourceUtil.getMessage("language.servers.settings.jvm.options"),
+                UIUtil.ComponentStyle.REGULAR, UIUtil.FontColor.BRIGHTER));
+        for (ServerExtensionPointBean server : ServerExtensionPointBean.EP_NAME.getExtensions()) {
+            if (server.id == null || server.id.isEmpty()) {
+                continue;
+            }
+            JBTextField field = new JBTextField();
+            field.getEmptyText().setText(LanguageServerSettings.getDefaultJvmOptions(server.id));
+            jvmOptionFields.put(server.id, field);
+            builder.addLabeledComponent(server.label != null ? server.label : server.id, field);
+        }
+        JBTextField hostField = new JBTextField();
+        hostField.getEmptyText().setText(LanguageServerSettings.getDefaultJvmOptions(SharedLanguageServerHost.HOST_ID));
+        jvmOptionFields.put(SharedLanguageServerHost.HOST_ID, hostField);
+        builder.addLabeledComponent(LocalizedResourceUtil.getMessage("language.servers.settings.shared.host"), hostField);
+        sharedHostCheckBox = new JBCheckBox(LocalizedResourceUtil.getMessage("language.servers.settings.use.shared.host"));
+        builder.addComponent(sharedHostCheckBox);
+        prestartCheckBox = new JBCheckBox(LocalizedResourceUtil.getMessage("language.servers.settings.prestart"));
+        builder.addComponent(prestartCheckBox);
+        documentSizeLimitSpinner = new JBIntSpinner(0, 0, 4096);
+        builder.addLabeledComponent(LocalizedResourceUtil.getMessage("language.servers.settings.document.size.limit"), documentSizeLimitSpinner);
+        panel = builder.addComponentFillVertically(new JPanel(), 0).getPanel();
+        reset();
+        return panel;
+    }
+
+    @Override
+    public boolean isModified() {
+        if (sharedHostCheckBox.isSelected() != LibertyProjectSettings.getInstance(project).isSharedLanguageServerHost()) {
+            return true;
+        }
+        LanguageServerSettings settings = LanguageServerSettings.getInstance();
+        if (prestartCheckBox.isSelected() != settings.isPrestartServers()) {
+            return true;
+        }
+        if (documentSizeLimitSpinner.getNumber() != settings.getDocumentSizeLimitMegabytes()) {
+            return true;
+        }
+        for (Map.Entry<String, JBTextField> entry : jvmOptionFields.entrySet()) {
+            if (!entry.getValue().getText().trim().equals(settings.getServerJvmOptions(entry.getKey()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void apply() {
+        LanguageServerSettings settings = LanguageServerSettings.getInstance();
+        for (Map.Entry<String, JBTextField> entry : jvmOptionFields.entrySet()) {
+            String options = entry.getValue().getText().trim();
+            settings.setServerJvmOptions(entry.getKey(), options.isEmpty() ? null : options);
+        }
+        settings.setPrestartServers(prestartCheckBox.isSelected());
+        settings.setDocumentSizeLimitMegabytes(documentSizeLimitSpinner.getNumber());
+        LibertyProjectSettings.getInstance(project).setSharedLanguageServerHost(sharedHostCheckBox.isSelected());
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        LanguageServerSettings settings = LanguageServerSettings.getInstance();
+        for (Map.Entry<String, JBTextField> entry : jvmOptionFields.entrySet()) {
+            entry.getValue().setText(settings.getServerJvmOptions(entry.getKey()));
+        }
+        sharedHostCheckBox.setSelected(LibertyProjectSettings.getInstance(project).isSharedLanguageServerHost());
+        prestartCheckBox.setSelected(settings.isPrestartServers());
+        documentSizeLimitSpinner.setNumber(settings.getDocumentSizeLimitMegabytes());
+    }
+
+    @Override
+    public void disposeUIResources() {
+        jvmOptionFields.clear();
+        sharedHostCheckBox = null;
+        prestartCheckBox = null;
+        documentSizeLimitSpinner = null;
+        panel = null;
+    }
+}
@@ -0,0 +1,255 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.lsp4mp.lsp4ij.ui;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.util.SystemInfo;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.ui.JBSplitter;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTextArea;
+import com.intellij.ui.table.JBTable;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.LanguageServerMetrics;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.LanguageServerWrapper;
+import io.openliberty.tools.intellij.lsp4mp.lsp4ij.LanguageServiceAccessor;
+import io.openliberty.tools.intellij.util.LocalizedResourceUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Panel of the language servers tool window. Shows the resource usage and the load of each language
+ * server started for the project, and the slow requests and lifecycle events of the selected one.
+ * The panel is refreshed periodically while the tool window is visible. The state of the servers, which
+ * reads the process information, is collected on a pooled thread and only the table is updated on the EDT.
+ */
+public class LanguageServersPanel extends SimpleToolWindowPanel implements Disposable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LanguageServersPanel.class);
+
+    private static final int REFRESH_DELAY_MILLIS = 2000;
+
+    private final Project project;
+    private final ToolWindow toolWindow;
+    private final ServersTableModel model = new ServersTableModel();
+    private final JBTable table = new JBTable(model);
+    private final JBTextArea details = new JBTextArea();
+    private final Timer timer;
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+    public LanguageServersPanel(Project project, ToolWindow toolWindow) {
+        super(true, true);
+        this.project = project;
+        this.toolWindow = toolWindow;
+
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                updateDetails();
+            }
+        });
+        details.setEditable(false);
+
+        JBSplitter splitter = new JBSplitter(true, 0.5f);
+        splitter.setFirstComponent(new JBScrollPane(table));
+        splitter.setSecondComponent(new JBScrollPane(details));
+        setContent(splitter);
+
+        timer = new Timer(REFRESH_DELAY_MILLIS, e -> {
+            if (toolWindow.isVisible()) {
+                refresh();
+            }
+        });
+        timer.start();
+        refresh();
+    }
+
+    /**
+     * Reloads the state of the language servers in the background, unless a reload is already running.
+     */
+    public void refresh() {
+        if (project.isDisposed() || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            List<ServerRow> rows = new ArrayList<>();
+            try {
+                if (!project.isDisposed()) {
+                    for (LanguageServerWrapper wrapper : LanguageServiceAccessor.getInstance(project).getStartedWrappers()) {
+                        rows.add(new ServerRow(wrapper));
+                    }
+                }
+            } finally {
+                refreshing.set(false);
+            }
+            ApplicationManager.getApplication().invokeLater(() -> setRows(rows), project.getDisposed());
+        });
+    }
+
+    private void setRows(List<ServerRow> rows) {
+        String selected = getSelectedServerId();
+        model.setRows(rows);
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).wrapper.serverDefinition.id.equals(selected)) {
+                table.getSelectionModel().setSelectionInterval(i, i);
+            }
+        }
+        updateDetails();
+    }
+
+    private String getSelectedServerId() {
+        int row = table.getSelectedRow();
+        return row >= 0 && row < model.rows.size() ? model.rows.get(row).wrapper.serverDefinition.id : null;
+    }
+
+    private void updateDetails() {
+        int row = table.getSelectedRow();
+        if (row < 0 || row >= model.rows.size()) {
+            details.setText(LocalizedResourceUtil.getMessage("language.servers.select.server"));
+            return;
+        }
+        LanguageServerMetrics metrics = model.rows.get(row).wrapper.getMetrics();
+        StringBuilder text = new StringBuilder();
+        text.append(LocalizedResourceUtil.getMessage("language.servers.slow.requests")).append('\n');
+        for (LanguageServerMetrics.SlowRequest request : metrics.getSlowRequests()) {
+            text.append(String.format("  %tT  %6d ms  %-24s %s %s%n", request.getTimestamp(), request.getMillis(), //$NON-NLS-1$
+                    request.getKind().getLabel(), request.getMethod(), request.getUri() != null ? request.getUri() : "")); //$NON-NLS-1$
+        }
+        text.append('\n').append(LocalizedResourceUtil.getMessage("language.servers.lifecycle.events")).append('\n');
+        for (LanguageServerMetrics.LifecycleEvent event : metrics.getLifecycleEvents()) {
+            text.append(String.format("  %1$tF %1$tT  %2$s%n", event.getTimestamp(), event.getDescription())); //$NON-NLS-1$
+        }
+        details.setText(text.toString());
+        details.setCaretPosition(0);
+    }
+
+    @Override
+    public void dispose() {
+        timer.stop();
+    }
+
+    private static String formatDuration(Duration duration) {
+        long seconds = duration.getSeconds();
+        return String.format("%d:%02d:%02d", seconds / 3600, (seconds % 3600) / 60, seconds % 60); //$NON-NLS-1$
+    }
+
+    /**
+     * Returns the resident memory of the given process in MB, read from <code>/proc</code> on Linux.
+     * The heap of the language servers can't be read without attaching to them, so the resident memory
+     * is the closest figure available for all of them.
+     */
+    private static String getResidentMemory(ProcessHandle process) {
+        if (!SystemInfo.isLinux) {
+            return "-"; //$NON-NLS-1$
+        }
+        Path status = Paths.get("/proc", Long.toString(process.pid()), "status"); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmRSS:")) { //$NON-NLS-1$
+                    String[] parts = line.substring("VmRSS:".length()).trim().split("\\s+"); //$NON-NLS-1$ //$NON-NLS-2$
+                    return (Long.parseLong(parts[0]) / 1024) + " MB"; //$NON-NLS-1$
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug(e.getLocalizedMessage(), e);
+        }
+        return "-"; //$NON-NLS-1$
+    }
+
+    /**
+     * State of a language server, computed once per refresh.
+     */
+    private static class ServerRow {
+
+        private final LanguageServerWrapper wrapper;
+        private final Object[] values;
+
+        private ServerRow(LanguageServerWrapper wrapper) {
+            this.wrapper = wrapper;
+            LanguageServerMetrics metrics = wrapper.getMetrics();
+            ProcessHandle process = wrapper.getProcessHandle();
+            String status = wrapper.isInitializing() ? LocalizedResourceUtil.getMessage("language.servers.status.starting")
+                    : wrapper.isActive() ? LocalizedResourceUtil.getMessage("language.servers.status.running")
+                    : LocalizedResourceUtil.getMessage("language.servers.status.stopped");
+            String pid = "-"; //$NON-NLS-1$
+            String uptime = "-"; //$NON-NLS-1$
+            String cpu = "-"; //$NON-NLS-1$
+            String memory = "-"; //$NON-NLS-1$
+            if (process != null && process.isAlive()) {
+                ProcessHandle.Info info = process.info();
+                pid = Long.toString(process.pid());
+                uptime = info.startInstant().map(start -> formatDuration(Duration.between(start, Instant.now()))).orElse("-"); //$NON-NLS-1$
+                cpu = info.totalCpuDuration().map(LanguageServersPanel::formatDuration).orElse("-"); //$NON-NLS-1$
+                memory = getResidentMemory(process);
+            }
+            this.values = new Object[]{
+                    wrapper.serverDefinition.label, status, pid, uptime, cpu, memory,
+                    wrapper.getConnectedDocumentCount(),
+                    StringUtil.formatFileSize(wrapper.getSynchronizedDocumentBytes()),
+                    metrics.getPendingRequestCount() + metrics.getPendingCallbackCount(),
+                    wrapper.getPendingBackgroundTasks(),
+                    Math.max(0, wrapper.getStartCount() - 1)
+            };
+        }
+    }
+
+    private static class ServersTableModel extends AbstractTableModel {
+
+        private static final String[] COLUMNS = {
+                "language.servers.column.server", "language.servers.column.status", "language.servers.column.pid", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                "language.servers.column.uptime", "language.servers.column.cpu", "language.servers.column.memory", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                "language.servers.column.documents", "language.servers.column.document.size", //$NON-NLS-1$ //$NON-NLS-2$
+                "language.servers.column.in.flight", //$NON-NLS-1$
+                "language.servers.column.queued", "language.servers.column.restarts" //$NON-NLS-1$ //$NON-NLS-2$
+        };
+
+        private List<ServerRow> rows = new ArrayList<>();
+
+        private void setRows(List<ServerRow> rows) {
+            this.rows = rows;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return LocalizedResourceUtil.getMessage(COLUMNS[column]);
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            return rows.get(rowIndex).values[columnIndex];
+        }
+    }
+}
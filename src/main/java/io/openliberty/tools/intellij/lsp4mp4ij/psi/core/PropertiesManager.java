@@ -43,7 +43,10 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -61,6 +64,8 @@ import java.util.stream.Collectors;
 public class PropertiesManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(PropertiesManager.class);
 
+    private static final Set<String> DUPLICATE_PROVIDERS = ConcurrentHashMap.newKeySet();
+
     private static final PropertiesManager INSTANCE = new PropertiesManager();
 
     public static PropertiesManager getInstance() {
@@ -157,7 +162,7 @@ public class PropertiesManager {
     private Query<PsiModifierListOwner> createSearchQuery(SearchContext context) {
         Query<PsiModifierListOwner> query = null;
 
-        for(IPropertiesProvider provider : IPropertiesProvider.EP_NAME.getExtensions()) {
+        for(IPropertiesProvider provider : getUniquePropertiesProviders()) {
           Query<PsiModifierListOwner> providerQuery = provider.createSearchPattern(context);
           if (providerQuery != null) {
               if (query == null) {
@@ -170,10 +175,31 @@ public class PropertiesManager {
         return new UniqueResultsQuery<>(query);
     }
 
+    /**
+     * Returns the providers registered with the propertiesProvider extension point, each implementation once.
+     * A provider registered several times would run its search and its collection several times per request.
+     *
+     * @return the properties providers without duplicates.
+     */
+    @NotNull
+    private static List<IPropertiesProvider> getUniquePropertiesProviders() {
+        List<IPropertiesProvider> providers = IPropertiesProvider.EP_NAME.getExtensionList();
+        List<IPropertiesProvider> uniqueProviders = new ArrayList<>(providers.size());
+        Set<Class<?>> providerClasses = new HashSet<>();
+        for (IPropertiesProvider provider : providers) {
+            if (providerClasses.add(provider.getClass())) {
+                uniqueProviders.add(provider);
+            } else if (DUPLICATE_PROVIDERS.add(provider.getClass().getName())) {
+                LOGGER.warn("Properties provider '" + provider.getClass().getName() + "' is registered more than once, the duplicates are ignored");
+            }
+        }
+        return uniqueProviders;
+    }
+
     @NotNull
     List<IPropertiesProvider> getPropertiesProviders() {
         List<IPropertiesProvider> allProviders = new ArrayList<>();
-        allProviders.addAll(IPropertiesProvider.EP_NAME.getExtensionList());
+        allProviders.addAll(getUniquePropertiesProviders());
         allProviders.addAll(StaticPropertyProviderExtensionPointBean.EP_NAME.getExtensionList().stream()
                 .map(bean -> bean.getInstance()).collect(Collectors.toList()));
         return allProviders;
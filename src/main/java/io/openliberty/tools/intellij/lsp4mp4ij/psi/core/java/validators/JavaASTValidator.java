@@ -116,4 +116,13 @@ public class JavaASTValidator extends JavaRecursiveElementVisitor implements Clo
 	public JavaDiagnosticsContext getContext() {
 		return context;
 	}
+
+	/**
+	 * Returns the member and annotation index of the validated compilation unit, shared by all the validators.
+	 *
+	 * @return the member index
+	 */
+	protected JavaMemberIndex getMemberIndex() {
+		return JavaMemberIndex.getMemberIndex(context);
+	}
 }
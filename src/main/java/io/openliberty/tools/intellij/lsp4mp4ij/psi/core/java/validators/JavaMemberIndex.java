@@ -0,0 +1,146 @@
+/*******************************************************************************
+* Copyright (c) 2023 IBM Corporation.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*******************************************************************************/
+package io.openliberty.tools.intellij.lsp4mp4ij.psi.core.java.validators;
+
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiMember;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiModifierListOwner;
+import com.intellij.psi.util.PsiTreeUtil;
+import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.java.AbstractJavaContext;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Member and annotation index of the compilation unit of a Java context, shared by all the
+ * {@link JavaASTValidator}s of a diagnostics run.
+ *
+ * The qualified name of each annotation, the owner of each annotation and the method names of each class
+ * are computed once, the first time a validator asks for them, instead of resolving the annotation or
+ * navigating the tree again in each validator.
+ */
+public class JavaMemberIndex {
+
+	private static final String CONTEXT_KEY = JavaMemberIndex.class.getName();
+
+	/**
+	 * Qualified names of the annotations, an empty string for annotations which don't resolve.
+	 */
+	private final Map<PsiAnnotation, String> qualifiedNames = new HashMap<>();
+
+	private final Map<PsiAnnotation, PsiMember> owners = new HashMap<>();
+
+	private final Map<PsiClass, Set<String>> methodNames = new HashMap<>();
+
+	/**
+	 * Returns the member index of the given context, created on the first call.
+	 *
+	 * @param context the Java context
+	 * @return the member index of the compilation unit of the context
+	 */
+	public static JavaMemberIndex getMemberIndex(AbstractJavaContext context) {
+		JavaMemberIndex index = (JavaMemberIndex) context.get(CONTEXT_KEY);
+		if (index == null) {
+			index = new JavaMemberIndex();
+			context.put(CONTEXT_KEY, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the qualified name of the given annotation.
+	 *
+	 * @param annotation the annotation
+	 * @return the qualified name of the annotation, or null if it can't be resolved
+	 */
+	public String getQualifiedName(PsiAnnotation annotation) {
+		String qualifiedName = qualifiedNames.get(annotation);
+		if (qualifiedName == null) {
+			qualifiedName = annotation.getQualifiedName();
+			if (qualifiedName == null) {
+				qualifiedName = "";
+			}
+			qualifiedNames.put(annotation, qualifiedName);
+		}
+		return qualifiedName.isEmpty() ? null : qualifiedName;
+	}
+
+	/**
+	 * Returns true if the given annotation matches the given annotation name, with the same rules as
+	 * {@link io.openliberty.tools.intellij.lsp4mp4ij.psi.core.utils.AnnotationUtils#isMatchAnnotation(PsiAnnotation, String)}.
+	 *
+	 * @param annotation     the annotation
+	 * @param annotationName the annotation name
+	 * @return true if the annotation matches the annotation name
+	 */
+	public boolean isMatchAnnotation(PsiAnnotation annotation, String annotationName) {
+		if (annotation == null) {
+			return false;
+		}
+		String qualifiedName = getQualifiedName(annotation);
+		return qualifiedName != null && annotationName.endsWith(qualifiedName);
+	}
+
+	/**
+	 * Returns the annotation of the given element which matches the given annotation name.
+	 *
+	 * @param element        the annotated element
+	 * @param annotationName the annotation name
+	 * @return the annotation, or null if the element isn't annotated with it
+	 */
+	public PsiAnnotation getAnnotation(PsiModifierListOwner element, String annotationName) {
+		if (element == null) {
+			return null;
+		}
+		for (PsiAnnotation annotation : element.getAnnotations()) {
+			if (isMatchAnnotation(annotation, annotationName)) {
+				return annotation;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the class, method or field annotated with the given annotation.
+	 *
+	 * @param annotation the annotation
+	 * @return the owner of the annotation, or null if the annotation is not on a member
+	 */
+	public PsiMember getOwner(PsiAnnotation annotation) {
+		if (owners.containsKey(annotation)) {
+			return owners.get(annotation);
+		}
+		PsiMember owner = PsiTreeUtil.getParentOfType(annotation, PsiMember.class);
+		owners.put(annotation, owner);
+		return owner;
+	}
+
+	/**
+	 * Returns the names of the methods declared by the given class.
+	 *
+	 * @param type the class
+	 * @return the method names of the class
+	 */
+	public Set<String> getMethodNames(PsiClass type) {
+		Set<String> names = methodNames.get(type);
+		if (names == null) {
+			names = new HashSet<>();
+			for (PsiMethod method : type.getMethods()) {
+				names.add(method.getName());
+			}
+			methodNames.put(type, names);
+		}
+		return names;
+	}
+}
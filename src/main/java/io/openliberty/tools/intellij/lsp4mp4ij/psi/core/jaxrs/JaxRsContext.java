@@ -13,8 +13,17 @@
 *******************************************************************************/
 package io.openliberty.tools.intellij.lsp4mp4ij.psi.core.jaxrs;
 
+import com.intellij.lang.java.JavaLanguage;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.search.searches.AnnotatedElementsSearch;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.util.Query;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.java.codelens.JavaCodeLensContext;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.utils.AnnotationUtils;
@@ -38,6 +47,9 @@ public class JaxRsContext {
 
 	private static final String CONTEXT_KEY = JaxRsContext.class.getName();
 
+	private static final Key<CachedValue<JaxRsApplicationInfo>> APPLICATION_INFO_KEY = Key
+			.create(JaxRsApplicationInfo.class.getName());
+
 	private int serverPort;
 
 	// The quarkus.http.root-path property in application.properties
@@ -46,11 +58,11 @@ public class JaxRsContext {
 	// The value of the @ApplicationPath annotation
 	private String applicationPath;
 
-	private final JavaCodeLensContext javaCodeLensContext;
-
 	public JaxRsContext(JavaCodeLensContext javaCodeLensContext) {
-		setServerPort(DEFAULT_PORT);
-		this.javaCodeLensContext = javaCodeLensContext;
+		JaxRsApplicationInfo info = getApplicationInfo(javaCodeLensContext.getJavaProject());
+		setServerPort(info.serverPort);
+		this.rootPath = info.rootPath;
+		this.applicationPath = info.applicationPath;
 	}
 
 	public int getServerPort() {
@@ -85,11 +97,6 @@ public class JaxRsContext {
 	 * @return the @ApplicationPath annotation value
 	 */
 	public String getApplicationPath() {
-		if (applicationPath == null) {
-			PsiClass applicationPathType = PsiTypeUtils.findType(javaCodeLensContext.getJavaProject(),
-					JAVAX_WS_RS_APPLICATIONPATH_ANNOTATION);
-			applicationPath = findApplicationPath(applicationPathType, javaCodeLensContext);
-		}
 		return applicationPath;
 	}
 
@@ -131,18 +138,41 @@ public class JaxRsContext {
 		return localBaseURL.toString();
 	}
 
+	/**
+	 * Returns the application path, root path and server port of the given module. They are cached with the
+	 * module and computed again when the structure of a Java class changes, e.g. when @ApplicationPath is
+	 * added to or removed from an existing class, or when the dependencies of the project change. Edits
+	 * inside method bodies keep the cache.
+	 *
+	 * @param javaProject the module
+	 * @return the JAX-RS application info of the module
+	 */
+	private static JaxRsApplicationInfo getApplicationInfo(Module javaProject) {
+		Project project = javaProject.getProject();
+		return CachedValuesManager.getManager(project).getCachedValue(javaProject, APPLICATION_INFO_KEY, () -> {
+			PsiClass applicationPathType = PsiTypeUtils.findType(javaProject, JAVAX_WS_RS_APPLICATIONPATH_ANNOTATION);
+			JaxRsApplicationInfo info = new JaxRsApplicationInfo(DEFAULT_PORT, null,
+					findApplicationPath(applicationPathType, javaProject));
+			return CachedValueProvider.Result.create(info, ProjectRootManager.getInstance(project),
+					PsiModificationTracker.getInstance(project).forLanguage(JavaLanguage.INSTANCE));
+		}, false);
+	}
+
 	/**
 	 * Use the java search engine to search the java project for the location and
 	 * value of the @ApplicationPath annotation, or null if not found
 	 *
 	 * @param annotationType the type representing the @ApplicationPath annotation
-	 * @param context        the java code lens context
+	 * @param javaProject    the module
 	 * @return the value of the @ApplicationPath annotation, or null if not found
 	 */
-	private static String findApplicationPath(PsiClass annotationType, JavaCodeLensContext context) {
+	private static String findApplicationPath(PsiClass annotationType, Module javaProject) {
+		if (annotationType == null) {
+			return null;
+		}
 		AtomicReference<String> applicationPathRef = new AtomicReference<String>();
 
-		Query<PsiClass> pattern = AnnotatedElementsSearch.searchElements(annotationType, context.getJavaProject().getModuleWithDependenciesScope(),
+		Query<PsiClass> pattern = AnnotatedElementsSearch.searchElements(annotationType, javaProject.getModuleWithDependenciesScope(),
 				PsiClass.class);
 		pattern.forEach((Consumer<? super PsiClass>) match -> collectApplicationPath(match, applicationPathRef));
 		return applicationPathRef.get();
@@ -153,4 +183,20 @@ public class JaxRsContext {
 			applicationPathRef.set(getJaxRsApplicationPathValue(type));
 		}
 	}
+
+	/**
+	 * JAX-RS settings of a module which don't depend on the file the code lenses are computed for.
+	 */
+	private static class JaxRsApplicationInfo {
+
+		private final int serverPort;
+		private final String rootPath;
+		private final String applicationPath;
+
+		private JaxRsApplicationInfo(int serverPort, String rootPath, String applicationPath) {
+			this.serverPort = serverPort;
+			this.rootPath = rootPath;
+			this.applicationPath = applicationPath;
+		}
+	}
 }
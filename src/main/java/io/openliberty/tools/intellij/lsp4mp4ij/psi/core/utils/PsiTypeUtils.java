@@ -13,10 +13,13 @@ package io.openliberty.tools.intellij.lsp4mp4ij.psi.core.utils;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
 import com.intellij.psi.JavaPsiFacade;
 import com.intellij.psi.PsiAnnotation;
 import com.intellij.psi.PsiAnnotationMemberValue;
@@ -38,6 +41,9 @@ import com.intellij.psi.PsiReference;
 import com.intellij.psi.PsiType;
 import com.intellij.psi.PsiVariable;
 import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
 import com.intellij.psi.util.ClassUtil;
 import com.intellij.psi.util.PsiTreeUtil;
 import org.slf4j.Logger;
@@ -47,6 +53,8 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * PSI Type utilities.
@@ -58,6 +66,8 @@ import java.util.List;
 public class PsiTypeUtils {
     private static final Logger LOGGER = LoggerFactory.getLogger(PsiTypeUtils.class);
 
+    private static final Key<CachedValue<Map<String, Boolean>>> CLASSPATH_CAPABILITIES_KEY = Key.create("PsiTypeUtils.classpathCapabilities");
+
     private static final List<String> NUMBER_TYPES = Arrays.asList("short", "int", "long", "double", "float");
 
     public static String getResolvedTypeName(PsiType type) {
@@ -145,6 +155,30 @@ public class PsiTypeUtils {
         return facade.findClass(name, GlobalSearchScope.moduleWithDependenciesAndLibrariesScope(module));
     }
 
+    /**
+     * Returns true if the given type is on the classpath of the given module, i.e. if {@link #findType(Module, String)}
+     * would find it. The answers are kept in a snapshot per module, shared by all the participants, and discarded
+     * when the module roots change or when files are added or removed.
+     *
+     * @param module the module
+     * @param name the fully qualified name of the type
+     * @return true if the type is on the classpath of the module
+     */
+    public static boolean isTypeOnClasspath(Module module, String name) {
+        Project project = module.getProject();
+        Map<String, Boolean> capabilities = CachedValuesManager.getManager(project).getCachedValue(module,
+                CLASSPATH_CAPABILITIES_KEY,
+                () -> CachedValueProvider.Result.create(new ConcurrentHashMap<>(),
+                        ProjectRootManager.getInstance(project), VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS),
+                false);
+        Boolean onClasspath = capabilities.get(name);
+        if (onClasspath == null) {
+            onClasspath = findType(module, name) != null;
+            capabilities.put(name, onClasspath);
+        }
+        return onClasspath;
+    }
+
     public static String getSourceField(PsiMember psiMember) {
         return psiMember.getName();
     }
@@ -20,14 +20,14 @@ import com.intellij.psi.PsiAnnotationMemberValue;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiField;
 import com.intellij.psi.PsiLiteral;
+import com.intellij.psi.PsiMember;
 import com.intellij.psi.PsiType;
-import com.intellij.psi.util.PsiTreeUtil;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.MicroProfileConfigConstants;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.java.diagnostics.JavaDiagnosticsContext;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.java.validators.JavaASTValidator;
+import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.java.validators.JavaMemberIndex;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.project.PsiMicroProfileProject;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.project.PsiMicroProfileProjectManager;
-import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.utils.AnnotationUtils;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.utils.PsiTypeUtils;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.internal.config.properties.MicroProfileConfigPropertyProvider;
 import org.eclipse.lsp4j.Diagnostic;
@@ -84,7 +84,7 @@ public class MicroProfileConfigASTValidator extends JavaASTValidator {
 	@Override
 	public boolean isAdaptedForDiagnostics(JavaDiagnosticsContext context) {
 		Module javaProject = context.getJavaProject();
-		return PsiTypeUtils.findType(javaProject, CONFIG_PROPERTY_ANNOTATION) != null;
+		return PsiTypeUtils.isTypeOnClasspath(javaProject, CONFIG_PROPERTY_ANNOTATION);
 	}
 
 	private static List<String> getPatternsFromContext(JavaDiagnosticsContext context) {
@@ -94,8 +94,9 @@ public class MicroProfileConfigASTValidator extends JavaASTValidator {
 	@Override
 	public void visitClass(PsiClass typeDeclaration) {
 		// Get prefix from @ConfigProperties(prefix="")
+		JavaMemberIndex index = getMemberIndex();
 		for(PsiAnnotation annotation : typeDeclaration.getAnnotations()) {
-			if (AnnotationUtils.isMatchAnnotation(annotation, CONFIG_PROPERTIES_ANNOTATION)) {
+			if (index.isMatchAnnotation(annotation, CONFIG_PROPERTIES_ANNOTATION)) {
 				PsiAnnotationMemberValue prefixExpr = getAnnotationMemberValueExpression(annotation, MicroProfileConfigConstants.CONFIG_PROPERTIES_ANNOTATION_PREFIX);
 				if (prefixExpr instanceof PsiLiteral && ((PsiLiteral) prefixExpr).getValue() instanceof String) {
 					currentPrefix = (String) ((PsiLiteral) prefixExpr).getValue();
@@ -109,8 +110,13 @@ public class MicroProfileConfigASTValidator extends JavaASTValidator {
 
 	@Override
 	public void visitAnnotation(PsiAnnotation annotation) {
-		PsiField parent = PsiTreeUtil.getParentOfType(annotation, PsiField.class);
-		if (AnnotationUtils.isMatchAnnotation(annotation, CONFIG_PROPERTY_ANNOTATION) && parent != null) {
+		JavaMemberIndex index = getMemberIndex();
+		if (!index.isMatchAnnotation(annotation, CONFIG_PROPERTY_ANNOTATION)) {
+			return;
+		}
+		PsiMember owner = index.getOwner(annotation);
+		if (owner instanceof PsiField) {
+			PsiField parent = (PsiField) owner;
 			PsiAnnotationMemberValue defaultValueExpr = getAnnotationMemberValueExpression(annotation, MicroProfileConfigConstants.CONFIG_PROPERTY_ANNOTATION_DEFAULT_VALUE);
 			validatePropertyDefaultValue(annotation, defaultValueExpr, parent);
 			validatePropertyHasValue(annotation, defaultValueExpr);
@@ -18,29 +18,24 @@ import com.intellij.psi.JavaPsiFacade;
 import com.intellij.psi.PsiAnnotation;
 import com.intellij.psi.PsiAnnotationMemberValue;
 import com.intellij.psi.PsiClass;
-import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiReferenceExpression;
 import com.intellij.psi.PsiType;
-import com.intellij.psi.util.PsiTreeUtil;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.MicroProfileConfigConstants;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.utils.AnnotationUtils;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.utils.PsiTypeUtils;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.java.diagnostics.JavaDiagnosticsContext;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.java.validators.JavaASTValidator;
+import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.java.validators.JavaMemberIndex;
 import org.eclipse.lsp4j.DiagnosticSeverity;
 
 import java.text.MessageFormat;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static io.openliberty.tools.intellij.lsp4mp4ij.psi.internal.faulttolerance.MicroProfileFaultToleranceConstants.ASYNCHRONOUS_ANNOTATION;
 import static io.openliberty.tools.intellij.lsp4mp4ij.psi.internal.faulttolerance.MicroProfileFaultToleranceConstants.DELAY_RETRY_ANNOTATION_MEMBER;
@@ -66,15 +61,12 @@ public class MicroProfileFaultToleranceASTValidator extends JavaASTValidator {
 
 	private static final String RETRY_WARNING_MESSAGE = "The effective delay may exceed the `maxDuration` member value.";
 
-	private final Map<PsiClass, Set<String>> methodsCache;
-
 	private final Set<String> allowedReturnTypesForAsynchronousAnnotation;
 
 	private static Logger LOGGER = Logger.getLogger(MicroProfileFaultToleranceASTValidator.class.getName());
 
 	public MicroProfileFaultToleranceASTValidator() {
 		super();
-		this.methodsCache = new HashMap<>();
 		this.allowedReturnTypesForAsynchronousAnnotation = new HashSet<>(
 				Arrays.asList(MicroProfileConfigConstants.FUTURE_TYPE_UTILITY, MicroProfileConfigConstants.COMPLETION_STAGE_TYPE_UTILITY));
 	}
@@ -82,9 +74,9 @@ public class MicroProfileFaultToleranceASTValidator extends JavaASTValidator {
 	@Override
 	public boolean isAdaptedForDiagnostics(JavaDiagnosticsContext context) {
 		Module javaProject = context.getJavaProject();
-		boolean adapted = PsiTypeUtils.findType(javaProject, FALLBACK_ANNOTATION) != null
-				|| PsiTypeUtils.findType(javaProject, ASYNCHRONOUS_ANNOTATION) != null
-				|| PsiTypeUtils.findType(javaProject, RETRY_ANNOTATION) != null;
+		boolean adapted = PsiTypeUtils.isTypeOnClasspath(javaProject, FALLBACK_ANNOTATION)
+				|| PsiTypeUtils.isTypeOnClasspath(javaProject, ASYNCHRONOUS_ANNOTATION)
+				|| PsiTypeUtils.isTypeOnClasspath(javaProject, RETRY_ANNOTATION);
 		if (adapted) {
 			addAllowedReturnTypeForAsynchronousAnnotation(javaProject, MicroProfileConfigConstants.UNI_TYPE_UTILITY);
 		}
@@ -92,7 +84,7 @@ public class MicroProfileFaultToleranceASTValidator extends JavaASTValidator {
 	}
 
 	private void addAllowedReturnTypeForAsynchronousAnnotation(Module javaProject, String returnType) {
-		if (PsiTypeUtils.findType(javaProject, returnType) != null) {
+		if (PsiTypeUtils.isTypeOnClasspath(javaProject, returnType)) {
 			allowedReturnTypesForAsynchronousAnnotation.add(returnType);
 		}
 	}
@@ -104,14 +96,15 @@ public class MicroProfileFaultToleranceASTValidator extends JavaASTValidator {
 
 	@Override
 	public void visitClass(PsiClass type) {
+		JavaMemberIndex index = getMemberIndex();
 		for (PsiAnnotation annotation : type.getAnnotations()) {
-			if (AnnotationUtils.isMatchAnnotation(annotation, ASYNCHRONOUS_ANNOTATION)) {
+			if (index.isMatchAnnotation(annotation, ASYNCHRONOUS_ANNOTATION)) {
 				PsiMethod[] methods = type.getMethods();
 				for (PsiMethod node : methods) {
 					validateAsynchronousAnnotation(node, annotation);
 				}
 				break;
-			} else if (AnnotationUtils.isMatchAnnotation(annotation, RETRY_ANNOTATION)) {
+			} else if (index.isMatchAnnotation(annotation, RETRY_ANNOTATION)) {
 				validateRetryAnnotation(annotation);
 			}
 		}
@@ -125,12 +118,16 @@ public class MicroProfileFaultToleranceASTValidator extends JavaASTValidator {
 	 * @param node The method declaration to validate
 	 */
 	private void validateMethod(PsiMethod node) {
+		JavaMemberIndex index = getMemberIndex();
 		for (PsiAnnotation annotation : node.getAnnotations()) {
-			if (AnnotationUtils.isMatchAnnotation(annotation, FALLBACK_ANNOTATION)) {
+			if (index.isMatchAnnotation(annotation, FALLBACK_ANNOTATION)) {
 				validateFallbackAnnotation(node, annotation);
-			} else if (AnnotationUtils.isMatchAnnotation(annotation, ASYNCHRONOUS_ANNOTATION)) {
-				validateAsynchronousAnnotation(node, annotation);
-			} else if (AnnotationUtils.isMatchAnnotation(annotation, RETRY_ANNOTATION)) {
+			} else if (index.isMatchAnnotation(annotation, ASYNCHRONOUS_ANNOTATION)) {
+				// the methods of a class annotated with @Asynchronous are already validated with the class
+				if (index.getAnnotation(node.getContainingClass(), ASYNCHRONOUS_ANNOTATION) == null) {
+					validateAsynchronousAnnotation(node, annotation);
+				}
+			} else if (index.isMatchAnnotation(annotation, RETRY_ANNOTATION)) {
 				validateRetryAnnotation(annotation);
 			}
 		}
@@ -149,7 +146,8 @@ public class MicroProfileFaultToleranceASTValidator extends JavaASTValidator {
 		if (fallbackMethodExpr != null) {
 			String fallbackMethodName = AnnotationUtils.getAnnotationMemberValue(annotation, FALLBACK_METHOD_FALLBACK_ANNOTATION_MEMBER);
 			//fallbackMethodName = fallbackMethodName.substring(1, fallbackMethodName.length() - 1);
-			if (!getExistingMethods(node).contains(fallbackMethodName)) {
+			PsiClass type = node.getContainingClass();
+			if (type == null || !getMemberIndex().getMethodNames(type).contains(fallbackMethodName)) {
 				String message = MessageFormat.format(FALLBACK_ERROR_MESSAGE, fallbackMethodName);
 				super.addDiagnostic(message, DIAGNOSTIC_SOURCE, fallbackMethodExpr, MicroProfileFaultToleranceErrorCode.FALLBACK_METHOD_DOES_NOT_EXIST,
 						DiagnosticSeverity.Error);
@@ -258,28 +256,4 @@ public class MicroProfileFaultToleranceASTValidator extends JavaASTValidator {
 		return allowedReturnTypesForAsynchronousAnnotation.stream().filter(s -> returnType.startsWith(s)).findFirst().isPresent();
 	}
 
-	private Set<String> getExistingMethods(PsiMethod node) {
-		PsiClass type = getOwnerType(node);
-		if (type == null) {
-			return Collections.emptySet();
-		}
-		return getExistingMethods(type);
-	}
-
-	private PsiClass getOwnerType(PsiElement node) {
-		return PsiTreeUtil.getParentOfType(node, PsiClass.class);
-	}
-
-	private Set<String> getExistingMethods(PsiClass type) {
-		Set<String> methods = methodsCache.get(type);
-		if (methods == null) {
-			methods = Stream.of(type.getMethods()) //
-					.map(m -> {
-						return m.getName();
-					}).collect(Collectors.toSet());
-			methodsCache.put(type, methods);
-		}
-		return methods;
-	};
-
 }
\ No newline at end of file
@@ -55,7 +55,7 @@ public class MicroProfileFaultToleranceCompletionParticipant implements IJavaCom
 	@Override
 	public boolean isAdaptedForCompletion(JavaCompletionContext context) {
 		Module javaProject = context.getJavaProject();
-		return PsiTypeUtils.findType(javaProject, FALLBACK_ANNOTATION) != null;
+		return PsiTypeUtils.isTypeOnClasspath(javaProject, FALLBACK_ANNOTATION);
 	}
 
 	@Override
@@ -28,9 +28,6 @@ import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.utils.PsiTypeUtils;
 import org.eclipse.lsp4j.CodeLens;
 import org.eclipse.lsp4mp.commons.MicroProfileJavaCodeLensParams;
 
-import java.io.IOException;
-import java.net.InetSocketAddress;
-import java.net.Socket;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -53,8 +50,6 @@ public class JaxRsCodeLensParticipant implements IJavaCodeLensParticipant {
 
 	private static final String LOCALHOST = "localhost";
 
-	private static final int PING_TIMEOUT = 2000;
-
 	@Override
 	public boolean isAdaptedForCodeLens(JavaCodeLensContext context) {
 		MicroProfileJavaCodeLensParams params = context.getParams();
@@ -63,12 +58,17 @@ public class JaxRsCodeLensParticipant implements IJavaCodeLensParticipant {
 		}
 		// Collection of URL codeLens is done only if JAX-RS is on the classpath
 		Module javaProject = context.getJavaProject();
-		return PsiTypeUtils.findType(javaProject, JAVAX_WS_RS_PATH_ANNOTATION) != null;
+		return PsiTypeUtils.isTypeOnClasspath(javaProject, JAVAX_WS_RS_PATH_ANNOTATION);
 	}
 
 	@Override
 	public void beginCodeLens(JavaCodeLensContext context) {
-		JaxRsContext.getJaxRsContext(context).getApplicationPath();
+		JaxRsContext jaxRsContext = JaxRsContext.getJaxRsContext(context);
+		jaxRsContext.getApplicationPath();
+		if (context.getParams().isCheckServerAvailable()) {
+			// Start probing the server as early as possible
+			ServerAvailabilityProbe.isAvailable(LOCALHOST, jaxRsContext.getServerPort());
+		}
 	}
 
 	@Override
@@ -92,9 +92,10 @@ public class JaxRsCodeLensParticipant implements IJavaCodeLensParticipant {
 				String pathValue = getJaxRsPathValue(type);
 				if (pathValue != null) {
 					// Class is annotated with @Path
-					// Display code lens only if local server is available.
+					// Display code lens only if local server is available. The availability is
+					// probed in the background, code lens collection never waits for the network.
 					if (!params.isCheckServerAvailable()
-							|| isServerAvailable(LOCALHOST, jaxRsContext.getServerPort(), PING_TIMEOUT)) {
+							|| ServerAvailabilityProbe.isAvailable(LOCALHOST, jaxRsContext.getServerPort())) {
 						// Loop for each method annotated with @Path to generate
 						// URL code lens per
 						// method.
@@ -134,13 +135,4 @@ public class JaxRsCodeLensParticipant implements IJavaCodeLensParticipant {
 			}
 		}
 	}
-
-	private static boolean isServerAvailable(String host, int port, int timeout) {
-		try (Socket socket = new Socket()) {
-			socket.connect(new InetSocketAddress(host, port), timeout);
-			return true;
-		} catch (IOException e) {
-			return false;
-		}
-	}
 }
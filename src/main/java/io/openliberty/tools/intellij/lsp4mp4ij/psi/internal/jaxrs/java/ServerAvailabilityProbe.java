@@ -0,0 +1,115 @@
+/*******************************************************************************
+* Copyright (c) 2023 IBM Corporation.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*******************************************************************************/
+package io.openliberty.tools.intellij.lsp4mp4ij.psi.internal.jaxrs.java;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks whether a server listens on a local port, without blocking the caller.
+ *
+ * The availability of each port is cached and refreshed in the background once it is
+ * older than <code>open-liberty.intellij.jaxrs.serverProbeTtlMillis</code> (default 3000):
+ * {@link #isAvailable(String, int)} returns the last known state and never performs network I/O.
+ * A port which was never probed is reported as unavailable until the first probe completes. When a probe
+ * changes the availability of a port, the code lenses of the open projects are collected again.
+ */
+final class ServerAvailabilityProbe {
+
+	private static final int PING_TIMEOUT = 2000;
+
+	private static final long TTL_NANOS = TimeUnit.MILLISECONDS
+			.toNanos(Long.getLong("open-liberty.intellij.jaxrs.serverProbeTtlMillis", 3000));
+
+	private static final ExecutorService EXECUTOR = AppExecutorUtil
+			.createBoundedApplicationPoolExecutor("JAX-RS Server Availability Probe", 2);
+
+	private static final Map<String, PortState> STATES = new ConcurrentHashMap<>();
+
+	private ServerAvailabilityProbe() {
+
+	}
+
+	/**
+	 * Returns the last known availability of the given port and schedules a new probe if it is stale.
+	 *
+	 * @param host the host name
+	 * @param port the port
+	 * @return true if a server was listening on the port at the last probe
+	 */
+	static boolean isAvailable(String host, int port) {
+		PortState state = STATES.computeIfAbsent(host + ':' + port, key -> new PortState());
+		if (!state.probing && isStale(state)) {
+			synchronized (state) {
+				// another thread may have probed the port since the check above
+				if (!state.probing && isStale(state)) {
+					state.probing = true;
+					EXECUTOR.execute(() -> probe(host, port, state));
+				}
+			}
+		}
+		return state.available;
+	}
+
+	private static boolean isStale(PortState state) {
+		return state.checkedAt == 0 || System.nanoTime() - state.checkedAt > TTL_NANOS;
+	}
+
+	private static void probe(String host, int port, PortState state) {
+		boolean available;
+		try (Socket socket = new Socket()) {
+			socket.connect(new InetSocketAddress(host, port), PING_TIMEOUT);
+			available = true;
+		} catch (IOException e) {
+			available = false;
+		}
+		boolean changed;
+		synchronized (state) {
+			changed = state.available != available;
+			state.available = available;
+			state.checkedAt = System.nanoTime();
+			state.probing = false;
+		}
+		if (changed) {
+			refreshCodeLenses();
+		}
+	}
+
+	/**
+	 * Collects the code lenses of the open editors again, the URL code lenses depend on the availability of the server.
+	 */
+	private static void refreshCodeLenses() {
+		ApplicationManager.getApplication().invokeLater(() -> {
+			for (Project project : ProjectManager.getInstance().getOpenProjects()) {
+				if (!project.isDisposed()) {
+					DaemonCodeAnalyzer.getInstance(project).restart();
+				}
+			}
+		});
+	}
+
+	private static class PortState {
+
+		private volatile boolean available;
+		private volatile long checkedAt;
+		private volatile boolean probing;
+	}
+}
@@ -59,7 +59,7 @@ public class MicroProfileGenerateOpenAPIOperation implements IJavaCodeActionPart
 	@Override
 	public boolean isAdaptedForCodeAction(JavaCodeActionContext context) {
 		Module javaProject = context.getJavaProject();
-		return PsiTypeUtils.findType(javaProject, MicroProfileOpenAPIConstants.OPERATION_ANNOTATION) != null;
+		return PsiTypeUtils.isTypeOnClasspath(javaProject, MicroProfileOpenAPIConstants.OPERATION_ANNOTATION);
 	}
 
 	@Override
@@ -19,6 +19,7 @@ import com.intellij.psi.PsiAnnotationMemberValue;
 import com.intellij.psi.PsiLiteral;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.java.diagnostics.JavaDiagnosticsContext;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.java.validators.JavaASTValidator;
+import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.java.validators.JavaMemberIndex;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.utils.AnnotationUtils;
 import io.openliberty.tools.intellij.lsp4mp4ij.psi.core.utils.PsiTypeUtils;
 import org.eclipse.lsp4j.DiagnosticSeverity;
@@ -59,14 +60,17 @@ public class MicroProfileReactiveMessagingASTValidator extends JavaASTValidator
     @Override
     public boolean isAdaptedForDiagnostics(JavaDiagnosticsContext context) {
         Module javaProject = context.getJavaProject();
-        boolean adapted = PsiTypeUtils.findType(javaProject, INCOMING_ANNOTATION) != null
-                || PsiTypeUtils.findType(javaProject, OUTGOING_ANNOTATION) != null;
+        boolean adapted = PsiTypeUtils.isTypeOnClasspath(javaProject, INCOMING_ANNOTATION)
+                || PsiTypeUtils.isTypeOnClasspath(javaProject, OUTGOING_ANNOTATION);
         return adapted;
     }
 
     @Override
     public void visitAnnotation(PsiAnnotation node) {
-        validateIncomingOutgoingAnnotation(node);
+        JavaMemberIndex index = getMemberIndex();
+        if (index.isMatchAnnotation(node, INCOMING_ANNOTATION) || index.isMatchAnnotation(node, OUTGOING_ANNOTATION)) {
+            validateIncomingOutgoingAnnotation(node);
+        }
     }
 
     private void validateIncomingOutgoingAnnotation(PsiAnnotation node) {
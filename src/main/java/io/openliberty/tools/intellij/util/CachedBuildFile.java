@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.util;
+
+/**
+ * Classification of a build file, stored in the user data of the build file and valid as long as
+ * the modification stamps of the build file and of the settings file it depends on are unchanged.
+ */
+class CachedBuildFile {
+    final long modificationStamp;
+    final long settingsStamp;
+    private final BuildFile buildFile;
+
+    CachedBuildFile(long modificationStamp, BuildFile buildFile) {
+        this(modificationStamp, -1, buildFile);
+    }
+
+    CachedBuildFile(long modificationStamp, long settingsStamp, BuildFile buildFile) {
+        this.modificationStamp = modificationStamp;
+        this.settingsStamp = settingsStamp;
+        this.buildFile = buildFile;
+    }
+
+    /**
+     * @return a copy of the classification, which callers are free to modify
+     */
+    BuildFile copy() {
+        BuildFile copy = new BuildFile(buildFile.isValidBuildFile(), buildFile.isValidContainerVersion());
+        copy.setProjectName(buildFile.getProjectName());
+        copy.setProjectType(buildFile.getProjectType());
+        return copy;
+    }
+}
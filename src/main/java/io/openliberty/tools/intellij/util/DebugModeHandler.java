@@ -17,6 +17,7 @@ import com.intellij.execution.remote.RemoteConfiguration;
 import com.intellij.execution.remote.RemoteConfigurationType;
 import com.intellij.execution.runners.ExecutionEnvironment;
 import com.intellij.execution.runners.ExecutionUtil;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.progress.ProcessCanceledException;
@@ -24,8 +25,17 @@ import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.util.PathUtil;
+import com.jediterm.terminal.model.TerminalModelListener;
 import io.openliberty.tools.intellij.LibertyModule;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.terminal.ShellTerminalWidget;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -35,15 +45,15 @@ import java.net.ConnectException;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Used for creating a debug configuration, connecting IntelliJ debugger to Liberty server JVM
@@ -70,6 +80,14 @@ public class DebugModeHandler {
     // WLP server environment file backup name.
     public static String WLP_SERVER_ENV_BAK_FILE_NAME = "server.env.bak";
 
+    // Time given to the JVM to start listening for the debugger
+    private static final long ATTACH_TIMEOUT_SECONDS = 300;
+
+    // Interval of the probes of the debug port when no terminal output or server.env change is received
+    private static final long PROBE_INTERVAL_SECONDS = 5;
+
+    private static final long CANCEL_CHECK_MILLIS = 500;
+
     /**
      * Gets a debug port for the Liberty module. First checks if the debug port was specified as part of the start parameters,
      * otherwise allocates a random port.
@@ -152,6 +170,10 @@ public class DebugModeHandler {
     /**
      * Waits for the JDWP socket on the JVM to start listening for connections
      *
+     * The socket is probed when the dev mode terminal prints output, such as the JVM announcing that it listens
+     * for the debugger, and when the deployed server.env changes, rather than at a fixed interval. A probe is
+     * also done every {@link #PROBE_INTERVAL_SECONDS} seconds in case no event is received.
+     *
      * @param monitor progress monitor
      * @param libertyModule Liberty module
      * @param host JVM host to connect to
@@ -161,55 +183,127 @@ public class DebugModeHandler {
      */
     private String waitForSocketActivation(ProgressIndicator monitor, LibertyModule libertyModule, String host, int debugPort) throws Exception {
         byte[] handshakeString = "JDWP-Handshake".getBytes(StandardCharsets.US_ASCII);
-        int retryLimit = 300;
-        int envReadMinLimit = 45;
-        int envReadInterval = 5;
-
-        // Retrieve the location of the server.env in the liberty installation at the default location (wpl/usr/servers/<serverName>).
-        Path serverEnvPath = getServerEnvPath(libertyModule);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(ATTACH_TIMEOUT_SECONDS);
 
-        for (int retryCount = 0; retryCount < retryLimit; retryCount++) {
-            // check if cancelled
-            if (monitor.isCanceled()) {
-                return null;
+        Semaphore wakeUp = new Semaphore(0);
+        Runnable signal = () -> {
+            if (wakeUp.availablePermits() == 0) {
+                wakeUp.release();
             }
+        };
+        AtomicBoolean serverEnvChanged = new AtomicBoolean(true);
+        Disposable watch = Disposer.newDisposable();
+        LocalFileSystem.WatchRequest watchRequest = null;
 
-            // The server.env path may not yet exist. If it is null, retry.
-            if (serverEnvPath == null) {
-                serverEnvPath = getServerEnvPath(libertyModule);
+        ShellTerminalWidget widget = libertyModule.getShellWidget();
+        TerminalModelListener terminalListener = signal::run;
+        if (widget != null) {
+            widget.getTerminalTextBuffer().addModelListener(terminalListener);
+        }
+        try {
+            // Retrieve the location of the server.env in the liberty installation at the default location (wpl/usr/servers/<serverName>).
+            Path serverEnvPath = null;
+            long serverEnvModified = 0;
+            int probeCount = 0;
+            while (System.nanoTime() < deadline) {
+                // check if cancelled
+                if (monitor.isCanceled()) {
+                    return null;
+                }
+
+                // The server.env path may not yet exist, look for it again on the next event.
                 if (serverEnvPath == null) {
-                    continue;
+                    serverEnvPath = getServerEnvPath(libertyModule);
+                    if (serverEnvPath != null) {
+                        watchRequest = watchServerEnv(serverEnvPath, serverEnvChanged, signal, watch);
+                    }
                 }
-            }
 
-            // There is a small window in which the allocated random port could have been taken by another process.
-            // Check the deployed server.env at the default deployment location (wlp/usr/servers/<serverName>) for the WLP_DEBUG_ADDRESS
-            // property. If the port is already in use, dev mode will allocate a random debug port and reflect that by updating the
-            // server.env file.
-            if ((retryCount >= envReadMinLimit) && (retryCount < retryLimit) && (retryCount % envReadInterval == 0)) {
-                // Look for the server.env.bak file before checking the server.env file.
-                Path serverEnvBakPath = (serverEnvPath != null) ? serverEnvPath.resolveSibling(WLP_SERVER_ENV_BAK_FILE_NAME) : null;
-                if (serverEnvBakPath != null && serverEnvBakPath.toFile().exists()) {
-                    String envPortStr = readDebugPortFromServerEnv(serverEnvPath.toFile());
-                    if (envPortStr != null) {
-                        int envPort = Integer.parseInt(envPortStr);
-                        if (envPort != debugPort) {
-                            debugPort = envPort;
+                // There is a small window in which the allocated random port could have been taken by another process.
+                // Check the deployed server.env at the default deployment location (wlp/usr/servers/<serverName>) for the WLP_DEBUG_ADDRESS
+                // property. If the port is already in use, dev mode will allocate a random debug port and reflect that by updating the
+                // server.env file.
+                if (serverEnvPath != null && serverEnvChanged.getAndSet(false)) {
+                    // Look for the server.env.bak file before checking the server.env file.
+                    File serverEnvFile = serverEnvPath.toFile();
+                    File serverEnvBakFile = serverEnvPath.resolveSibling(WLP_SERVER_ENV_BAK_FILE_NAME).toFile();
+                    if (serverEnvBakFile.exists() && serverEnvFile.lastModified() != serverEnvModified) {
+                        serverEnvModified = serverEnvFile.lastModified();
+                        String envPortStr = readDebugPortFromServerEnv(serverEnvFile);
+                        if (envPortStr != null) {
+                            int envPort = Integer.parseInt(envPortStr);
+                            if (envPort != debugPort) {
+                                debugPort = envPort;
+                            }
                         }
                     }
                 }
-            }
 
-            try (Socket socket = new Socket(host, debugPort)) {
-                socket.getOutputStream().write(handshakeString);
-                return String.valueOf(debugPort);
-            } catch (ConnectException e) {
-                TimeUnit.SECONDS.sleep(1);
+                probeCount++;
+                try (Socket socket = new Socket(host, debugPort)) {
+                    socket.getOutputStream().write(handshakeString);
+                    LOGGER.debug(String.format("%s: debug port %d is listening after %d probes", libertyModule.getName(), debugPort, probeCount));
+                    return String.valueOf(debugPort);
+                } catch (ConnectException e) {
+                    // wait for new terminal output, a server.env change or the next periodic probe
+                    long timeout = Math.min(TimeUnit.SECONDS.toNanos(PROBE_INTERVAL_SECONDS), Math.max(0, deadline - System.nanoTime()));
+                    long waitEnd = System.nanoTime() + timeout;
+                    // wake up regularly to react to cancellation
+                    while (!wakeUp.tryAcquire(Math.min(CANCEL_CHECK_MILLIS, TimeUnit.NANOSECONDS.toMillis(Math.max(0, waitEnd - System.nanoTime()))), TimeUnit.MILLISECONDS)) {
+                        if (monitor.isCanceled() || System.nanoTime() >= waitEnd) {
+                            break;
+                        }
+                    }
+                    wakeUp.drainPermits();
+                }
             }
+        } finally {
+            if (widget != null) {
+                widget.getTerminalTextBuffer().removeModelListener(terminalListener);
+            }
+            if (watchRequest != null) {
+                LocalFileSystem.getInstance().removeWatchedRoot(watchRequest);
+            }
+            Disposer.dispose(watch);
         }
         throw new Exception(LocalizedResourceUtil.getMessage("cannot.attach.debugger.host.port", host, String.format("%d",debugPort)));
     }
 
+    /**
+     * Watches the server directory for changes of the server.env and server.env.bak files.
+     *
+     * @param serverEnvPath path of the server.env file
+     * @param serverEnvChanged set when the server.env or server.env.bak file changes
+     * @param signal called when the server.env or server.env.bak file changes
+     * @param parentDisposable disposable which stops listening to the changes
+     * @return the watch request of the server directory, null if it could not be watched
+     */
+    private LocalFileSystem.WatchRequest watchServerEnv(Path serverEnvPath, AtomicBoolean serverEnvChanged, Runnable signal, Disposable parentDisposable) {
+        String serverDir = FileUtil.toSystemIndependentName(serverEnvPath.getParent().toString());
+        LocalFileSystem fileSystem = LocalFileSystem.getInstance();
+        LocalFileSystem.WatchRequest watchRequest = fileSystem.addRootToWatch(serverDir, false);
+        // load the files in the VFS so that their changes are reported
+        fileSystem.refreshAndFindFileByNioFile(serverEnvPath);
+        fileSystem.refreshAndFindFileByNioFile(serverEnvPath.resolveSibling(WLP_SERVER_ENV_BAK_FILE_NAME));
+        ApplicationManager.getApplication().getMessageBus().connect(parentDisposable).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                for (VFileEvent event : events) {
+                    String path = event.getPath();
+                    if (serverDir.equals(PathUtil.getParentPath(path))) {
+                        String name = PathUtil.getFileName(path);
+                        if (name.equals(WLP_SERVER_ENV_FILE_NAME) || name.equals(WLP_SERVER_ENV_BAK_FILE_NAME)) {
+                            serverEnvChanged.set(true);
+                            signal.run();
+                            return;
+                        }
+                    }
+                }
+            }
+        });
+        return watchRequest;
+    }
+
     /**
      * Returns the default path of the server.env file after Liberty server deployment.
      *
@@ -232,30 +326,30 @@ public class DebugModeHandler {
         }
 
         // Make sure the base path exists. If not return null.
-        File basePathFile = new File(basePath.toString());
-        if (!basePathFile.exists()) {
+        File[] serverDirs = basePath.toFile().listFiles(File::isDirectory);
+        if (serverDirs == null) {
             return null;
         }
 
-        try (Stream<Path> matchedStream = Files.find(basePath, 2, (path, basicFileAttribute) -> {
-            if (basicFileAttribute.isRegularFile()) {
-                return path.getFileName().toString().equalsIgnoreCase(WLP_SERVER_ENV_FILE_NAME);
+        // the server.env is in the directory of the server, wlp/usr/servers/<serverName>
+        List<Path> matchedPaths = new ArrayList<>();
+        for (File serverDir : serverDirs) {
+            File serverEnv = new File(serverDir, WLP_SERVER_ENV_FILE_NAME);
+            if (serverEnv.isFile()) {
+                matchedPaths.add(serverEnv.toPath());
             }
-            return false;
-        });) {
-            List<Path> matchedPaths = matchedStream.collect(Collectors.toList());
-            int numberOfFilesFound = matchedPaths.size();
+        }
+        int numberOfFilesFound = matchedPaths.size();
 
-            if (numberOfFilesFound != 1) {
-                if (numberOfFilesFound == 0) {
-                    LOGGER.trace(String.format("Unable to find the server.env file for project %s", libertyModule.getName()));
-                    return null;
-                } else {
-                    throw new Exception(String.format("More than one server.env files were found for project %s. Unable to determine the server.env file to use", libertyModule.getName()));
-                }
+        if (numberOfFilesFound != 1) {
+            if (numberOfFilesFound == 0) {
+                LOGGER.trace(String.format("Unable to find the server.env file for project %s", libertyModule.getName()));
+                return null;
+            } else {
+                throw new Exception(String.format("More than one server.env files were found for project %s. Unable to determine the server.env file to use", libertyModule.getName()));
             }
-            return matchedPaths.get(0);
         }
+        return matchedPaths.get(0);
     }
 
     /**
@@ -11,14 +11,13 @@ package io.openliberty.tools.intellij.util;
 
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.SystemInfo;
+import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiFile;
 
 import java.io.*;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.maven.artifact.versioning.ComparableVersion;
@@ -28,6 +27,20 @@ import org.jetbrains.plugins.gradle.settings.GradleSettings;
 
 public class LibertyGradleUtil {
     private static Logger LOGGER = Logger.getInstance(LibertyGradleUtil.class);;
+    private static final Key<CachedBuildFile> CLASSIFICATION_KEY = Key.create("liberty.gradle.classification");
+
+    private static final String SETTINGS_GRADLE = "settings.gradle";
+
+    //TODO: filter out commented out lines in build.gradle
+    // lookbehind for "apply plugin:", 0+ spaces, ' or ", "liberty"
+    private static final Pattern APPLY_PLUGIN_PATTERN = Pattern.compile("(?<=apply plugin:)(\\s*)('|\")liberty");
+    // content of the dependencies blocks
+    private static final Pattern DEPENDENCIES_PATTERN = Pattern.compile("(?<=dependencies)(\\s*\\{)([^\\}]+)(?=\\})");
+    // dependency with group io.openliberty.tools and name liberty-gradle-plugin
+    private static final Pattern PLUGIN_PATTERN = Pattern.compile("(.*\\bio\\.openliberty\\.tools\\b.*)(.*\\bliberty-gradle-plugin\\b.*)");
+    private static final Pattern VERSION_PATTERN = Pattern.compile("(?<=:liberty-gradle-plugin:).*(?=\')");
+    private static final Pattern ROOT_PROJECT_NAME_PATTERN = Pattern.compile("^\\s*rootProject\\.name\\s*[=:]?\\s*(.*?)\\s*$", Pattern.MULTILINE);
+
     /**
      * Given the gradle build file get the project name
      * This method looks for a settings.gradle file in the same parent dir
@@ -38,20 +51,16 @@ public class LibertyGradleUtil {
      */
     public static String getProjectName(VirtualFile file) {
         VirtualFile parentFolder = file.getParent();
-        Path settingsPath = Paths.get(parentFolder.getPath(), "settings.gradle");
-        File settingsFile = settingsPath.toFile();
-        if (settingsFile.exists()) {
+        VirtualFile settingsFile = parentFolder.findChild(SETTINGS_GRADLE);
+        if (settingsFile != null) {
             try {
-                FileInputStream input = new FileInputStream(settingsFile);
-                Properties prop = new Properties();
-                prop.load(input);
-                String name = prop.getProperty("rootProject.name");
-                if (name != null) {
+                Matcher matcher = ROOT_PROJECT_NAME_PATTERN.matcher(VfsUtilCore.loadText(settingsFile));
+                if (matcher.find()) {
                     // return name without surrounding quotes
-                    return name.replaceAll("^[\"']+|[\"']+$", "");
+                    return matcher.group(1).replaceAll("^[\"']+|[\"']+$", "");
                 }
             } catch (IOException e) {
-                LOGGER.error(String.format("Could not read project name from file %s", settingsPath), e);
+                LOGGER.error(String.format("Could not read project name from file %s", settingsFile.getPath()), e);
             }
         }
         return parentFolder.getName();
@@ -91,42 +100,50 @@ public class LibertyGradleUtil {
      * @throws IOException
      */
     public static BuildFile validBuildGradle(PsiFile file) throws IOException {
-            String buildFile = fileToString(file.getVirtualFile().getPath());
-            if (buildFile.isEmpty()) { return (new BuildFile(false, false)); }
-
-            // check if "apply plugin: 'liberty'" is specified in the build.gradle
-            boolean libertyPlugin = false;
-
-            //TODO: filter out commented out lines in build.gradle
-            // lookbehind for "apply plugin:", 0+ spaces, ' or ", "liberty"
-            String applyPluginRegex = "(?<=apply plugin:)(\\s*)('|\")liberty";
-            Pattern applyPluginPattern = Pattern.compile(applyPluginRegex);
-            Matcher applyPluginMatcher = applyPluginPattern.matcher(buildFile);
-            while (applyPluginMatcher.find()) {
-                libertyPlugin = true;
-            }
-            // TODO: check if liberty is in the plugins block
-
-            if (libertyPlugin) {
-                // check if group matches io.openliberty.tools and name matches liberty-gradle-plugin
-                String regex = "(?<=dependencies)(\\s*\\{)([^\\}]+)(?=\\})";
-                String regex2 = "(.*\\bio\\.openliberty\\.tools\\b.*)(.*\\bliberty-gradle-plugin\\b.*)";
-
-                Pattern pattern = Pattern.compile(regex);
-                Matcher matcher = pattern.matcher(buildFile);
-
-                while (matcher.find()) {
-                    String sub = buildFile.substring(matcher.start(), matcher.end());
-                    Pattern pattern2 = Pattern.compile(regex2);
-                    Matcher matcher2 = pattern2.matcher(sub);
-                    while (matcher2.find()) {
-                        String plugin = sub.substring(matcher2.start(), matcher2.end());
-                        boolean vaildContainerVersion = containerVersion(plugin);
-
-                        return (new BuildFile(true, vaildContainerVersion));
-                    }
+        return classifyBuildGradle(file.getVirtualFile());
+    }
+
+    /**
+     * Check if a Gradle build file is using the liberty gradle plugin and resolve its project name.
+     * The result is cached until the modification stamp of the build file or of its settings.gradle changes.
+     *
+     * @param file build.gradle file
+     * @return BuildFile as returned by {@link #validBuildGradle(PsiFile)}, with the project name of the build file
+     * @throws IOException
+     */
+    public static BuildFile classifyBuildGradle(VirtualFile file) throws IOException {
+        long modificationStamp = file.getModificationStamp();
+        VirtualFile settingsFile = file.getParent() != null ? file.getParent().findChild(SETTINGS_GRADLE) : null;
+        long settingsStamp = settingsFile != null ? settingsFile.getModificationStamp() : -1;
+        CachedBuildFile cached = file.getUserData(CLASSIFICATION_KEY);
+        if (cached == null || cached.modificationStamp != modificationStamp || cached.settingsStamp != settingsStamp) {
+            BuildFile buildFile = validBuildGradle(VfsUtilCore.loadText(file));
+            buildFile.setProjectName(getProjectName(file));
+            buildFile.setProjectType(Constants.LIBERTY_GRADLE_PROJECT);
+            cached = new CachedBuildFile(modificationStamp, settingsStamp, buildFile);
+            file.putUserData(CLASSIFICATION_KEY, cached);
+        }
+        return cached.copy();
+    }
+
+    private static BuildFile validBuildGradle(String buildFile) {
+        if (buildFile.isEmpty()) { return (new BuildFile(false, false)); }
+
+        // check if "apply plugin: 'liberty'" is specified in the build.gradle
+        // TODO: check if liberty is in the plugins block
+        if (APPLY_PLUGIN_PATTERN.matcher(buildFile).find()) {
+            // check if group matches io.openliberty.tools and name matches liberty-gradle-plugin
+            Matcher matcher = DEPENDENCIES_PATTERN.matcher(buildFile);
+            while (matcher.find()) {
+                Matcher matcher2 = PLUGIN_PATTERN.matcher(buildFile).region(matcher.start(), matcher.end());
+                if (matcher2.find()) {
+                    String plugin = matcher2.group();
+                    boolean vaildContainerVersion = containerVersion(plugin);
+
+                    return (new BuildFile(true, vaildContainerVersion));
                 }
             }
+        }
         return (new BuildFile(false, false));
     }
 
@@ -139,18 +156,12 @@ public class LibertyGradleUtil {
      */
     private static boolean containerVersion(String plugin) {
         // get the version from the plugin
-        String versionRegex = "(?<=:liberty-gradle-plugin:).*(?=\')";
-        Pattern versionPattern = Pattern.compile(versionRegex);
-        Matcher versionMatcher = versionPattern.matcher(plugin);
-        while (versionMatcher.find()) {
+        Matcher versionMatcher = VERSION_PATTERN.matcher(plugin);
+        if (versionMatcher.find()) {
             try {
-                String version = plugin.substring(versionMatcher.start(), versionMatcher.end());
-                ComparableVersion pluginVersion = new ComparableVersion(version);
+                ComparableVersion pluginVersion = new ComparableVersion(versionMatcher.group());
                 ComparableVersion containerVersion = new ComparableVersion(Constants.LIBERTY_GRADLE_PLUGIN_CONTAINER_VERSION);
-                if (pluginVersion.compareTo(containerVersion) >= 0) {
-                    return true;
-                }
-                return false;
+                return pluginVersion.compareTo(containerVersion) >= 0;
             } catch (NullPointerException | ClassCastException e) {
                 return false;
             }
@@ -10,6 +10,7 @@
 package io.openliberty.tools.intellij.util;
 
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.SystemInfo;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiFile;
@@ -19,16 +20,15 @@ import org.jetbrains.idea.maven.project.MavenWorkspaceSettingsComponent;
 import org.jetbrains.idea.maven.server.MavenServerConnector;
 import org.jetbrains.idea.maven.server.MavenServerManager;
 import org.jetbrains.idea.maven.utils.MavenUtil;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Iterator;
 
@@ -36,35 +36,23 @@ import org.apache.maven.artifact.versioning.ComparableVersion;
 
 public class LibertyMavenUtil {
 
+    private static final Key<CachedBuildFile> CLASSIFICATION_KEY = Key.create("liberty.maven.classification");
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    static {
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
     /**
      * Return the project name given a pom.xml build file
      * @param file pom.xml
      * @return String of project name
-     * @throws ParserConfigurationException
      * @throws IOException
-     * @throws SAXException
      */
-    public static String getProjectNameFromPom(VirtualFile file) throws ParserConfigurationException, IOException, SAXException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-
-        File inputFile = new File(file.getPath());
-        Document doc = builder.parse(inputFile);
-
-        doc.getDocumentElement().normalize();
-        Node root = doc.getDocumentElement();
-
-        NodeList nList = root.getChildNodes();
-        for (int temp = 0; temp < nList.getLength(); temp++) {
-            Node nNode = nList.item(temp);
-            if (nNode.getNodeName().equals("artifactId")) {
-                if (nNode.getTextContent() != null) {
-                    return nNode.getTextContent();
-                }
-            }
-        }
-        VirtualFile parentFolder = file.getParent();
-        return parentFolder.getName();
+    public static String getProjectNameFromPom(VirtualFile file) throws IOException {
+        return classifyPom(file).getProjectName();
     }
 
     /**
@@ -73,101 +61,122 @@ public class LibertyMavenUtil {
      * @param file pom.xml build file
      * @return BuildFile, validBuildFile true if using the liberty maven plugin,
      * validContainerVersion true if plugin version is valid for dev mode in containers
-     * @throws ParserConfigurationException
      * @throws IOException
-     * @throws SAXException
      */
-    public static BuildFile validPom(PsiFile file) throws ParserConfigurationException, IOException, SAXException {
-        BuildFile buildFile = new BuildFile(false, false);
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-
-        File inputFile = new File(file.getVirtualFile().getPath());
-        Document doc = builder.parse(inputFile);
-
-        doc.getDocumentElement().normalize();
-        Node root = doc.getDocumentElement();
+    public static BuildFile validPom(PsiFile file) throws IOException {
+        return classifyPom(file.getVirtualFile());
+    }
 
-        NodeList nList = root.getChildNodes();
-        for (int temp = 0; temp < nList.getLength(); temp++) {
-            Node nNode = nList.item(temp);
+    /**
+     * Check if a pom uses the liberty maven plugin and resolve its project name. The pom is read in a
+     * single streaming pass and the result is cached until the modification stamp of the pom changes.
+     *
+     * @param file pom.xml build file
+     * @return BuildFile as returned by {@link #validPom(PsiFile)}, with the project name of the pom
+     * @throws IOException
+     */
+    public static BuildFile classifyPom(VirtualFile file) throws IOException {
+        long modificationStamp = file.getModificationStamp();
+        CachedBuildFile cached = file.getUserData(CLASSIFICATION_KEY);
+        if (cached == null || cached.modificationStamp != modificationStamp) {
+            cached = new CachedBuildFile(modificationStamp, parsePom(file));
+            file.putUserData(CLASSIFICATION_KEY, cached);
+        }
+        return cached.copy();
+    }
 
-            // check for liberty maven plugin in profiles
-            if (nNode.getNodeName().equals("profiles")) {
-                NodeList profiles = nNode.getChildNodes();
-                for (int i = 0; i < profiles.getLength(); i++) {
-                    Node profile = profiles.item(i);
-                    if (profile.getNodeName().equals("profile")) {
-                        NodeList profileList = profile.getChildNodes();
-                        for (int j = 0; j < profileList.getLength(); j++) {
-                            if (profileList.item(j).getNodeName().equals("build")) {
-                                NodeList buildNodeList = profileList.item(j).getChildNodes();
-                                buildFile = mavenPluginDetected(buildNodeList);
-                                if (buildFile.isValidBuildFile()){
-                                    return buildFile;
+    private static BuildFile parsePom(VirtualFile file) throws IOException {
+        String projectName = null;
+        BuildFile plugin = null;
+        BuildFile managedPlugin = null;
+        // element names from the root of the pom to the current element
+        ArrayDeque<String> path = new ArrayDeque<>();
+        String groupId = "";
+        String artifactId = "";
+        String version = "";
+        try (InputStream input = file.getInputStream()) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(input);
+            try {
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        String name = reader.getLocalName();
+                        int depth = path.size();
+                        if (depth == 1 && name.equals("artifactId") && projectName == null) {
+                            projectName = reader.getElementText();
+                            continue;
+                        }
+                        if (isPlugin(path) && (name.equals("groupId") || name.equals("artifactId") || name.equals("version"))) {
+                            String text = reader.getElementText().trim();
+                            switch (name) {
+                                case "groupId" -> groupId = text;
+                                case "artifactId" -> artifactId = text;
+                                default -> version = text;
+                            }
+                            continue;
+                        }
+                        path.addLast(name);
+                        if (isPlugin(path)) {
+                            groupId = "";
+                            artifactId = "";
+                            version = "";
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (isPlugin(path) && groupId.equals("io.openliberty.tools") && artifactId.equals("liberty-maven-plugin")) {
+                            BuildFile buildFile = new BuildFile(true, containerVersion(version));
+                            // plugin management indicates this is a parent pom, list in the Liberty Dev Dashboard
+                            if (isManagedPlugin(path)) {
+                                if (managedPlugin == null) {
+                                    managedPlugin = buildFile;
                                 }
+                            } else if (plugin == null) {
+                                plugin = buildFile;
                             }
                         }
+                        path.removeLast();
                     }
                 }
+            } finally {
+                reader.close();
             }
+        } catch (XMLStreamException e) {
+            throw new IOException(String.format("Could not parse %s", file.getPath()), e);
+        }
 
-            // check for liberty maven plugin in plugins
-            if (nNode.getNodeName().equals("build")) {
-                NodeList buildNodeList = nNode.getChildNodes();
-                buildFile = mavenPluginDetected(buildNodeList);
-                if (buildFile.isValidBuildFile()){
-                    return buildFile;
-                }
-
-                // check for liberty maven plugin in plugin management
-                // indicates this is a parent pom, list in the Liberty Dev Dashboard
-                for (int i = 0; i < buildNodeList.getLength(); i++) {
-                    Node buildNode = buildNodeList.item(i);
-                    if (buildNode.getNodeName().equals("pluginManagement")) {
-                        NodeList pluginManagementList = buildNode.getChildNodes();
-                        buildFile = mavenPluginDetected(pluginManagementList);
-                    }
-                }
-            }
+        BuildFile buildFile = plugin != null ? plugin : managedPlugin != null ? managedPlugin : new BuildFile(false, false);
+        if (projectName == null) {
+            VirtualFile parentFolder = file.getParent();
+            projectName = parentFolder.getName();
         }
+        buildFile.setProjectName(projectName);
+        buildFile.setProjectType(Constants.LIBERTY_MAVEN_PROJECT);
         return buildFile;
     }
 
-    private static BuildFile mavenPluginDetected(NodeList buildList) {
-        for (int i = 0; i < buildList.getLength(); i++) {
-            Node buildNode = buildList.item(i);
-            if (buildNode.getNodeName().equals("plugins")) {
-                NodeList plugins = buildNode.getChildNodes();
-                if (buildNode.getNodeType() == Node.ELEMENT_NODE) {
-                    Element pluginsElem = (Element) buildNode;
-                    NodeList pluginsList = pluginsElem.getElementsByTagName("plugin");
-                    for (int j = 0; j < pluginsList.getLength(); j++) {
-                        Node pluginNode = pluginsList.item(j);
-                        if (pluginNode.getNodeType() == Node.ELEMENT_NODE) {
-                            Element pluginElem = (Element) pluginNode;
-                            String groupId = "";
-                            String artifactId = "";
-                            String version = "";
-                            if (pluginElem.getElementsByTagName("groupId").getLength() != 0) {
-                                groupId = pluginElem.getElementsByTagName("groupId").item(0).getTextContent();
-                            }
-                            if (pluginElem.getElementsByTagName("artifactId").getLength() != 0) {
-                                artifactId = pluginElem.getElementsByTagName("artifactId").item(0).getTextContent();
-                            }
-                            if (pluginElem.getElementsByTagName("version").getLength() != 0) {
-                                version = pluginElem.getElementsByTagName("version").item(0).getTextContent();
-                            }
-                            if (groupId.equals("io.openliberty.tools") && artifactId.equals("liberty-maven-plugin")){
-                                boolean validContainerVersion = containerVersion(version);
-                                return (new BuildFile(true, validContainerVersion));
-                            }
-                        }
-                    }
-                }
-            }
+    /**
+     * @return true if the given element path is a plugin of the build, of the plugin management
+     * of the build, or of the build of a profile
+     */
+    private static boolean isPlugin(ArrayDeque<String> path) {
+        if (path.size() < 4 || !path.peekLast().equals("plugin")) {
+            return false;
+        }
+        Iterator<String> it = path.iterator();
+        it.next(); // project
+        String first = it.next();
+        if (first.equals("build")) {
+            String second = it.next();
+            return path.size() == 4 ? second.equals("plugins")
+                    : path.size() == 5 && second.equals("pluginManagement") && it.next().equals("plugins");
         }
-        return (new BuildFile(false, false));
+        return first.equals("profiles") && path.size() == 6 && it.next().equals("profile")
+                && it.next().equals("build") && it.next().equals("plugins");
+    }
+
+    private static boolean isManagedPlugin(ArrayDeque<String> path) {
+        Iterator<String> it = path.iterator();
+        it.next(); // project
+        return it.next().equals("build") && it.next().equals("pluginManagement");
     }
 
     /**
@@ -14,10 +14,9 @@ import com.intellij.openapi.actionSystem.DataContext;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiFile;
-import com.intellij.psi.search.FilenameIndex;
-import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.terminal.JBTerminalWidget;
 import com.sun.istack.Nullable;
+import io.openliberty.tools.intellij.LibertyBuildFiles;
 import io.openliberty.tools.intellij.LibertyModule;
 import io.openliberty.tools.intellij.LibertyModules;
 import io.openliberty.tools.intellij.LibertyProjectSettings;
@@ -161,30 +160,11 @@ public class LibertyProjectUtil {
     // returns valid build files for the current project
     private static ArrayList<BuildFile> getBuildFiles(Project project, String buildFileType, BuildFileFilter filter) throws ParserConfigurationException, SAXException, IOException {
         ArrayList<BuildFile> buildFiles = new ArrayList<BuildFile>();
-
-        if (buildFileType.equals(Constants.LIBERTY_MAVEN_PROJECT)) {
-            PsiFile[] mavenFiles = FilenameIndex.getFilesByName(project, "pom.xml", GlobalSearchScope.projectScope(project));
-            for (PsiFile mavenFile : mavenFiles) {
-                BuildFile buildFile = LibertyMavenUtil.validPom(mavenFile);
-                // check if valid pom.xml, or if part of Liberty project
-                if (filter.matches(project, buildFile, mavenFile)) {
-                    buildFile.setBuildFile(mavenFile);
-                    buildFiles.add(buildFile);
-                }
-            }
-        } else if (buildFileType.equals(Constants.LIBERTY_GRADLE_PROJECT)) {
-            PsiFile[] gradleFiles = FilenameIndex.getFilesByName(project, "build.gradle", GlobalSearchScope.projectScope(project));
-            for (PsiFile gradleFile : gradleFiles) {
-                try {
-                    BuildFile buildFile = LibertyGradleUtil.validBuildGradle(gradleFile);
-                    // check if valid build.gradle, or if part of Liberty project
-                    if (filter.matches(project, buildFile, gradleFile)) {
-                        buildFile.setBuildFile(gradleFile);
-                        buildFiles.add(buildFile);
-                    }
-                } catch (Exception e) {
-                    LOGGER.error(String.format("Error parsing build.gradle %s", gradleFile), e.getMessage());
-                }
+        // build files are classified by the project's build file model, only again when they change
+        for (BuildFile buildFile : LibertyBuildFiles.getInstance(project).getBuildFiles(buildFileType)) {
+            // check if valid build file, or if part of Liberty project
+            if (filter.matches(project, buildFile, buildFile.getBuildFile())) {
+                buildFiles.add(buildFile);
             }
         }
         return buildFiles;
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package io.openliberty.tools.intellij.util;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Locates the test reports of Liberty projects.
+ *
+ * The reports are first looked up at the locations where the Maven surefire and failsafe report plugins
+ * and the Gradle test tasks write them. For Gradle projects which configure another destination which
+ * can't be resolved, the project directory is searched once for Gradle test reports, skipping dependency
+ * and VCS directories and reading only the beginning of each index.html. The reports found are remembered
+ * per project directory and searched again only when none of them exists anymore.
+ */
+public class TestReportLocator {
+    private static final Logger LOGGER = Logger.getInstance(TestReportLocator.class);
+
+    private static final String GRADLE_REPORT_FILE_NAME = "index.html";
+
+    private static final Pattern TEST_REPORT_DESTINATION_PATTERN = Pattern.compile("(?<=reports.html.destination[\\s\\=|\\=]).*([\"|'])(.*)([\"|'])");
+
+    private static final Pattern BUILD_DIR_PATTERN = Pattern.compile("^\\$\\{?(project\\.)?buildDir}?");
+
+    // number of bytes of an index.html which are checked for the test report title
+    private static final int HEADER_SIZE = 16 * 1024;
+
+    // directories which never contain the test reports of the project
+    private static final Set<String> SKIPPED_DIRECTORIES = Set.of("node_modules", ".git", ".gradle", ".idea", ".svn", "src");
+
+    /**
+     * Gradle test reports found in each project directory by the last search.
+     */
+    private static final Map<String, List<File>> CUSTOM_TEST_REPORTS = new ConcurrentHashMap<>();
+
+    private TestReportLocator() {
+
+    }
+
+    /**
+     * Returns the failsafe integration test report of a Maven project.
+     *
+     * @param buildFile pom.xml of the project
+     * @return the report, or the default location of the report if it does not exist
+     */
+    public static File getMavenIntegrationTestReport(VirtualFile buildFile) {
+        return getFirstExisting(buildFile, new String[]{"target", "site", "failsafe-report.html"},
+                new String[]{"target", "reports", "failsafe.html"});
+    }
+
+    /**
+     * Returns the surefire unit test report of a Maven project.
+     *
+     * @param buildFile pom.xml of the project
+     * @return the report, or the default location of the report if it does not exist
+     */
+    public static File getMavenUnitTestReport(VirtualFile buildFile) {
+        return getFirstExisting(buildFile, new String[]{"target", "site", "surefire-report.html"},
+                new String[]{"target", "reports", "surefire.html"});
+    }
+
+    /**
+     * Returns the test report of a Gradle project: the report at the destination configured in the build file,
+     * the most recent report of the Gradle test tasks, or the most recent test report found in the project
+     * directory when the configured destination does not exist.
+     *
+     * @param buildFile build.gradle of the project
+     * @return the report, or the default location of the report if it does not exist
+     */
+    public static File getGradleTestReport(VirtualFile buildFile) {
+        VirtualFile projectDir = buildFile.getParent();
+        File defaultReport = Paths.get(projectDir.getPath(), "build", "reports", "tests", "test", GRADLE_REPORT_FILE_NAME).normalize().toAbsolutePath().toFile();
+
+        String testReportDest = null;
+        try {
+            testReportDest = getTestReportDestination(buildFile);
+        } catch (IOException e) {
+            LOGGER.warn(String.format("Could not read the test report destination from %s", buildFile.getPath()), e);
+        }
+        if (testReportDest != null) {
+            File testReportFile = resolveDestination(projectDir, testReportDest);
+            if (testReportFile.exists()) {
+                return testReportFile;
+            }
+            File customTestReport = findCustomTestReport(projectDir);
+            if (customTestReport != null) {
+                return customTestReport;
+            }
+        }
+
+        // the reports of the test tasks are in build/reports/tests/<taskName>
+        File mostRecent = defaultReport.exists() ? defaultReport : null;
+        File[] taskDirs = Paths.get(projectDir.getPath(), "build", "reports", "tests").toFile().listFiles(File::isDirectory);
+        if (taskDirs != null) {
+            for (File taskDir : taskDirs) {
+                File report = new File(taskDir, GRADLE_REPORT_FILE_NAME);
+                if (report.isFile() && (mostRecent == null || report.lastModified() > mostRecent.lastModified())) {
+                    mostRecent = report;
+                }
+            }
+        }
+        return mostRecent != null ? mostRecent : defaultReport;
+    }
+
+    private static File getFirstExisting(VirtualFile buildFile, String[]... locations) {
+        String projectDir = buildFile.getParent().getPath();
+        File first = null;
+        for (String[] location : locations) {
+            File report = Paths.get(projectDir, location).normalize().toAbsolutePath().toFile();
+            if (report.exists()) {
+                return report;
+            }
+            if (first == null) {
+                first = report;
+            }
+        }
+        return first;
+    }
+
+    private static String getTestReportDestination(VirtualFile file) throws IOException {
+        Matcher matcher = TEST_REPORT_DESTINATION_PATTERN.matcher(VfsUtilCore.loadText(file));
+        if (matcher.find()) {
+            if (!matcher.group(2).isEmpty()) {
+                // group 2 is the string enclosed in quotation marks
+                return matcher.group(2);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the configured destination of the test report, which may be relative to the project
+     * directory or start with the build directory variable.
+     */
+    private static File resolveDestination(VirtualFile projectDir, String testReportDest) {
+        String destination = BUILD_DIR_PATTERN.matcher(testReportDest).replaceFirst("build");
+        File testReportFile = new File(destination);
+        if (!testReportFile.isAbsolute()) {
+            testReportFile = new File(projectDir.getPath(), destination);
+        }
+        if (testReportFile.isDirectory()) {
+            testReportFile = new File(testReportFile, GRADLE_REPORT_FILE_NAME);
+        }
+        return testReportFile;
+    }
+
+    private static File findCustomTestReport(VirtualFile projectDir) {
+        String key = projectDir.getPath();
+        File report = getMostRecent(CUSTOM_TEST_REPORTS.getOrDefault(key, Collections.emptyList()));
+        if (report == null) {
+            List<File> reports = searchTestReports(Paths.get(key));
+            CUSTOM_TEST_REPORTS.put(key, reports);
+            report = getMostRecent(reports);
+        }
+        return report;
+    }
+
+    private static File getMostRecent(List<File> reports) {
+        File mostRecentlyModified = null;
+        for (File f : reports) {
+            if (f.exists() && (mostRecentlyModified == null || f.lastModified() > mostRecentlyModified.lastModified())) {
+                mostRecentlyModified = f;
+            }
+        }
+        return mostRecentlyModified;
+    }
+
+    private static List<File> searchTestReports(Path projectDir) {
+        List<File> reports = new ArrayList<>();
+        try {
+            Files.walkFileTree(projectDir, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    Path name = dir.getFileName();
+                    if (!dir.equals(projectDir) && name != null && SKIPPED_DIRECTORIES.contains(name.toString())) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile() && file.getFileName().toString().equals(GRADLE_REPORT_FILE_NAME) && isTestReport(file)) {
+                        reports.add(file.toFile());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.warn(String.format("Could not search test reports in %s", projectDir), e);
+        }
+        return reports;
+    }
+
+    /**
+     * @return true if the title of a Gradle test report is in the beginning of the given file
+     */
+    private static boolean isTestReport(Path file) {
+        try (InputStream input = Files.newInputStream(file)) {
+            String header = new String(input.readNBytes(HEADER_SIZE), StandardCharsets.UTF_8);
+            return header.contains(Constants.TEST_REPORT_STRING);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}